@@ -70,7 +70,7 @@ public class ChainConfigurers implements Action<Chain> {
                 if (c2 instanceof Ordered) {
                     c2Order = ((Ordered) c2).getOrder();
                 }
-                return c1Order - c2Order;
+                return Integer.compare(c1Order, c2Order);
             });
             for (Action<Chain> delegate : delegates) {
                 if (!(delegate instanceof ChainConfigurers)) {
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server;
+
+import io.micronaut.core.order.Ordered;
+import io.netty.channel.Channel;
+
+/**
+ * Configures each connection the Ratpack server accepts, before any of its bytes are read or decoded.
+ *
+ * <p>Beans of this type are called in order when the connection is registered with its event loop, after
+ * Ratpack has built the channel pipeline. They may set channel options or add handlers, for example with
+ * {@code channel.pipeline().addFirst(...)} to act before HTTP decoding.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public interface RatpackChannelInitializer extends Ordered {
+
+    /**
+     * Configures an accepted connection.
+     *
+     * @param channel The connection
+     * @throws Exception if the connection cannot be configured
+     */
+    void initChannel(Channel channel) throws Exception;
+}
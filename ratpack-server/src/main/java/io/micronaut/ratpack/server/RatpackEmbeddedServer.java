@@ -22,6 +22,8 @@ import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.context.exceptions.ConfigurationException;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.util.StringUtils;
+import io.micronaut.ratpack.server.warmup.RatpackWarmup;
+import io.micronaut.ratpack.server.warmup.WarmupResult;
 import io.micronaut.runtime.ApplicationConfiguration;
 import io.micronaut.runtime.exceptions.ApplicationStartupException;
 import io.micronaut.runtime.server.EmbeddedServer;
@@ -32,6 +34,7 @@ import org.slf4j.LoggerFactory;
 import ratpack.server.RatpackServer;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Singleton;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -55,6 +58,7 @@ public class RatpackEmbeddedServer implements EmbeddedServer {
     private ApplicationContext applicationContext;
     private ApplicationConfiguration applicationConfiguration;
     private ApplicationEventPublisher eventPublisher;
+    private RatpackWarmup warmup;
 
     private final AtomicBoolean running = new AtomicBoolean(false);
 
@@ -62,11 +66,13 @@ public class RatpackEmbeddedServer implements EmbeddedServer {
     RatpackEmbeddedServer(@Nonnull RatpackServer server,
                           @Nonnull ApplicationContext applicationContext,
                           @Nonnull ApplicationConfiguration applicationConfiguration,
-                          @Nonnull ApplicationEventPublisher eventPublisher) {
+                          @Nonnull ApplicationEventPublisher eventPublisher,
+                          @Nullable RatpackWarmup warmup) {
         this.server = server;
         this.applicationContext = applicationContext;
         this.applicationConfiguration = applicationConfiguration;
         this.eventPublisher = eventPublisher;
+        this.warmup = warmup;
     }
 
     @Override
@@ -123,6 +129,7 @@ public class RatpackEmbeddedServer implements EmbeddedServer {
         if (running.compareAndSet(false, true)) {
             try {
                 server.start();
+                warmup();
                 eventPublisher.publishEvent(new ServerStartupEvent(this));
             } catch (Exception e) {
                 throw new ApplicationStartupException("Unable to start Ratpack server: " + e.getMessage(), e);
@@ -143,4 +150,18 @@ public class RatpackEmbeddedServer implements EmbeddedServer {
         }
         return this;
     }
+
+    private void warmup() {
+        if (warmup == null) {
+            return;
+        }
+        try {
+            WarmupResult result = warmup.run(getURI());
+            if (LOG.isInfoEnabled()) {
+                LOG.info(result.toString());
+            }
+        } catch (Exception e) {
+            LOG.warn("Ratpack warmup failed: " + e.getMessage(), e);
+        }
+    }
 }
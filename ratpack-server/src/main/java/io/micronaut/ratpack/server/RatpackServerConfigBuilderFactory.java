@@ -17,6 +17,7 @@ package io.micronaut.ratpack.server;
 
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
+import io.micronaut.core.annotation.Internal;
 import io.netty.handler.ssl.SslContextBuilder;
 import ratpack.server.ServerConfig;
 import ratpack.server.ServerConfigBuilder;
@@ -55,6 +56,20 @@ public class RatpackServerConfigBuilderFactory {
     @Singleton
     protected ServerConfigBuilder serverConfig() throws Exception {
         ServerConfigBuilder builder = ServerConfig.builder();
+        configure(builder, serverConfiguration);
+        return builder;
+    }
+
+    /**
+     * Applies the server configuration to a builder. Values already set on the builder for properties that are not
+     * configured are kept.
+     *
+     * @param builder             The builder
+     * @param serverConfiguration The server configuration
+     * @throws Exception if the key or trust store cannot be read
+     */
+    @Internal
+    public static void configure(ServerConfigBuilder builder, RatpackServerProperties serverConfiguration) throws Exception {
         if (serverConfiguration.getBaseDir() != null) {
             builder.baseDir(new File(serverConfiguration.getBaseDir()));
         } else {
@@ -111,6 +126,5 @@ public class RatpackServerConfigBuilderFactory {
                 }
             }
         }
-        return builder;
     }
 }
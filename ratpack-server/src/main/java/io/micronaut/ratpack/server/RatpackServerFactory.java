@@ -18,12 +18,13 @@ package io.micronaut.ratpack.server;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
-import io.micronaut.ratpack.server.internal.MicronautRegistryBacking;
-import ratpack.func.Function;
-import ratpack.registry.Registry;
+import io.micronaut.ratpack.server.internal.ChannelInitializingRatpackServer;
+import io.micronaut.ratpack.server.internal.JoinedRegistryFunction;
+import ratpack.func.Action;
+import ratpack.impose.Impositions;
 import ratpack.server.RatpackServer;
+import ratpack.server.RatpackServerSpec;
 import ratpack.server.ServerConfigBuilder;
-import ratpack.util.Exceptions;
 
 import javax.inject.Singleton;
 import java.util.List;
@@ -41,18 +42,22 @@ public class RatpackServerFactory {
     private final ServerConfigBuilder serverConfigBuilder;
     private final List<RatpackServerCustomizer> customizers;
     private final ChainConfigurers chainConfigurers;
+    private final List<RatpackChannelInitializer> channelInitializers;
 
     public RatpackServerFactory(ApplicationContext context,
                                 ServerConfigBuilder serverConfigBuilder,
                                 List<RatpackServerCustomizer> customizers,
-                                ChainConfigurers chainConfigurers) {
+                                ChainConfigurers chainConfigurers,
+                                List<RatpackChannelInitializer> channelInitializers) {
         this.context = context;
         this.serverConfigBuilder = serverConfigBuilder;
         this.customizers = customizers;
         this.chainConfigurers = chainConfigurers;
+        this.channelInitializers = channelInitializers;
     }
 
     /**
+     * Builds the server, running the {@link RatpackChannelInitializer} beans on every accepted connection.
      *
      * @return The {@link RatpackServer}
      * @throws Exception if the server cannot be built
@@ -63,19 +68,13 @@ public class RatpackServerFactory {
         for (RatpackServerCustomizer c : customizers) {
             c.getServerConfig().execute(serverConfigBuilder);
         }
-        return RatpackServer.of(spec -> spec
+        Action<RatpackServerSpec> definition = spec -> spec
                 .serverConfig(serverConfigBuilder)
-                .registry(joinedRegistry(context))
-                .handlers(chainConfigurers)
-        );
-    }
-
-        private Function<Registry, Registry> joinedRegistry(ApplicationContext context) {
-        return baseRegistry -> {
-            Registry updated = customizers.stream()
-                    .map(customizer -> Exceptions.uncheck(() -> customizer.getRegistry().apply(baseRegistry)))
-                    .reduce(Registry::join).orElse(Registry.empty());
-            return updated.join(Registry.backedBy(new MicronautRegistryBacking(context)));
-        };
+                .registry(new JoinedRegistryFunction(context, customizers))
+                .handlers(chainConfigurers);
+        if (channelInitializers.isEmpty()) {
+            return RatpackServer.of(definition);
+        }
+        return new ChannelInitializingRatpackServer(definition, Impositions.current(), channelInitializers);
     }
 }
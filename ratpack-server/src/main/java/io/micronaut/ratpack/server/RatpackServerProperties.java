@@ -40,6 +40,7 @@ public class RatpackServerProperties {
     public static final String HOST = PREFIX + ".host";
     public static final int DEFAULT_PORT = 5050;
     public static final String ENABLED = PREFIX + ".enabled";
+    public static final String SINGLE_PORT = PREFIX + ".single-port";
 
     private boolean enabled = true;
     private String baseDir = null;
@@ -61,6 +62,9 @@ public class RatpackServerProperties {
     private int connectQueueSize = 0;
     private int writeSpinCount = 0;
     private String portFile = null;
+    private boolean singlePort = false;
+    private Boolean tcpNoDelay = null;
+    private Boolean keepAlive = null;
     private RatpackSslProperties sslConfiguration = null;
 
     /**
@@ -387,7 +391,7 @@ public class RatpackServerProperties {
     }
 
     /**
-     * Gets the connectQueueSize.
+     * Gets the connectQueueSize, the accept backlog ({@code SO_BACKLOG}) of the listening socket.
      *
      * @return the connectQueueSize
      */
@@ -440,6 +444,63 @@ public class RatpackServerProperties {
         this.portFile = portFile;
     }
 
+    /**
+     * Gets the singlePort. When enabled, requests that no Ratpack handler matches are routed to the
+     * Micronaut controllers in-process.
+     *
+     * @return the singlePort
+     */
+    public boolean isSinglePort() {
+        return singlePort;
+    }
+
+    /**
+     * Sets the singlePort.
+     *
+     * @param singlePort the singlePort
+     */
+    public void setSinglePort(boolean singlePort) {
+        this.singlePort = singlePort;
+    }
+
+    /**
+     * Gets the tcpNoDelay, applied to each connection when it is accepted.
+     *
+     * @return the tcpNoDelay, or null to keep the transport default
+     */
+    @Nullable
+    public Boolean getTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    /**
+     * Sets the tcpNoDelay.
+     *
+     * @param tcpNoDelay the tcpNoDelay
+     */
+    public void setTcpNoDelay(@Nullable Boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+    }
+
+    /**
+     * Gets the keepAlive, whether {@code SO_KEEPALIVE} is set on each connection when it is accepted.
+     *
+     * @return the keepAlive, or null to keep the transport default
+     */
+    @Nullable
+    public Boolean getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Sets the keepAlive.
+     *
+     * @param keepAlive the keepAlive
+     */
+    public void setKeepAlive(@Nullable Boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
     /**
      * Gets the sslConfiguration.
      *
@@ -540,5 +601,4 @@ public class RatpackServerProperties {
             this.trustStorePass = trustStorePass;
         }
     }
-
 }
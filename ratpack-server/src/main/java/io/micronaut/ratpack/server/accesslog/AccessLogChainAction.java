@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.accesslog;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.core.util.StringUtils;
+import ratpack.func.Action;
+import ratpack.handling.Chain;
+
+import javax.inject.Singleton;
+
+/**
+ * Installs the {@link AccessLogHandler} ahead of every other handler, so requests rejected by later handlers are
+ * logged as well.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = AccessLogProperties.ENABLED, value = StringUtils.TRUE)
+public class AccessLogChainAction implements Action<Chain>, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private final AccessLogWriter writer;
+
+    /**
+     * Default constructor.
+     *
+     * @param writer The access log writer
+     */
+    public AccessLogChainAction(AccessLogWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void execute(Chain chain) {
+        chain.all(new AccessLogHandler(writer));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.accesslog;
+
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+
+/**
+ * Queues an access log record when each request completes.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class AccessLogHandler implements Handler {
+
+    private final AccessLogWriter writer;
+
+    /**
+     * Default constructor.
+     *
+     * @param writer The access log writer
+     */
+    public AccessLogHandler(AccessLogWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void handle(Context ctx) {
+        ctx.onClose(writer::log);
+        ctx.next();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.accesslog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+
+/**
+ * Binds the access log counters to Micrometer when it is on the classpath.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+@Requires(beans = AccessLogWriter.class)
+public class AccessLogMeterBinder implements MeterBinder {
+
+    private final AccessLogWriter writer;
+
+    /**
+     * Default constructor.
+     *
+     * @param writer The access log writer
+     */
+    public AccessLogMeterBinder(AccessLogWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ratpack.server.access-log.written", writer, AccessLogWriter::getWritten)
+                .description("Access log records written")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.access-log.dropped", writer, AccessLogWriter::getDropped)
+                .description("Access log records dropped because the buffer was full")
+                .register(registry);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.accesslog;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the asynchronous access log.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(AccessLogProperties.PREFIX)
+public class AccessLogProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".access-log";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private int bufferSize = 8192;
+    private int batchSize = 256;
+    private Duration flushInterval = Duration.ofMillis(100);
+    private String file = null;
+    private String loggerName = "io.micronaut.ratpack.server.accesslog";
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the bufferSize, the number of records the ring buffer holds. Rounded up to a power of two.
+     *
+     * @return the bufferSize
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Sets the bufferSize.
+     *
+     * @param bufferSize the bufferSize
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Gets the batchSize, the most records written per batch.
+     *
+     * @return the batchSize
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the batchSize.
+     *
+     * @param batchSize the batchSize
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the flushInterval, how long the writer waits when the buffer is empty.
+     *
+     * @return the flushInterval
+     */
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Sets the flushInterval.
+     *
+     * @param flushInterval the flushInterval
+     */
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Gets the file. When null, records are written to the SLF4J logger instead.
+     *
+     * @return the file
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Sets the file.
+     *
+     * @param file the file
+     */
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Gets the loggerName.
+     *
+     * @return the loggerName
+     */
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    /**
+     * Sets the loggerName.
+     *
+     * @param loggerName the loggerName
+     */
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+}
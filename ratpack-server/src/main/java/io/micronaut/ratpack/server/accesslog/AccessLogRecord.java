@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.accesslog;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * A reusable slot of the {@link AccessLogRingBuffer}. Event loops fill it in place and the writer formats it,
+ * so no record is allocated per request.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class AccessLogRecord {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter
+            .ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH)
+            .withZone(ZoneId.systemDefault());
+
+    String remoteHost;
+    long timestamp;
+    String method;
+    String uri;
+    String protocol;
+    int status;
+    String contentLength;
+    long durationMillis;
+
+    /**
+     * Appends the record in the NCSA common log format followed by the duration in milliseconds.
+     *
+     * @param line The line to append to
+     */
+    void appendTo(StringBuilder line) {
+        line.append(remoteHost).append(" - - [")
+                .append(TIMESTAMP.format(Instant.ofEpochMilli(timestamp)))
+                .append("] \"").append(method).append(' ').append(uri).append(' ').append(protocol)
+                .append("\" ").append(status)
+                .append(' ').append(contentLength == null ? "-" : contentLength)
+                .append(' ').append(durationMillis);
+    }
+
+    /**
+     * Drops the references held by the record once it has been written.
+     */
+    void clear() {
+        remoteHost = null;
+        method = null;
+        uri = null;
+        protocol = null;
+        contentLength = null;
+    }
+}
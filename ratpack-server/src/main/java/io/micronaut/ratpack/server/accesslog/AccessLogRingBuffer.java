@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free, multi-producer single-consumer ring of preallocated {@link AccessLogRecord} slots.
+ *
+ * <p>Each slot carries a sequence number: producers claim a slot by advancing the tail with a CAS, fill it and
+ * publish it by bumping its sequence; the consumer frees it again after reading. A producer that finds the ring
+ * full gives up and counts a drop instead of waiting.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class AccessLogRingBuffer {
+
+    private final AccessLogRecord[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private long head;
+
+    /**
+     * @param requestedCapacity The minimum number of slots, rounded up to a power of two
+     */
+    AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.slots = new AccessLogRecord[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AccessLogRecord();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Claims the next free slot.
+     *
+     * @return the sequence of the claimed slot, or -1 if the ring is full
+     */
+    long claim() {
+        for (;;) {
+            long sequence = tail.get();
+            long available = sequences.get((int) (sequence & mask));
+            if (available == sequence) {
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    return sequence;
+                }
+            } else if (available < sequence) {
+                dropped.increment();
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * @param sequence A claimed sequence
+     * @return the slot to fill for the sequence
+     */
+    AccessLogRecord slot(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+
+    /**
+     * Makes a filled slot visible to the consumer.
+     *
+     * @param sequence A claimed sequence
+     */
+    void publish(long sequence) {
+        sequences.lazySet((int) (sequence & mask), sequence + 1);
+    }
+
+    /**
+     * Hands published records to the consumer and frees their slots. Must only be called from one thread.
+     *
+     * @param consumer Receives each record
+     * @param max      The most records to drain
+     * @return the number of records drained
+     */
+    int drain(Consumer<AccessLogRecord> consumer, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            AccessLogRecord record = slots[index];
+            consumer.accept(record);
+            record.clear();
+            sequences.lazySet(index, head + slots.length);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return the number of records dropped because the ring was full
+     */
+    long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.accesslog;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.http.Request;
+import ratpack.http.RequestOutcome;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes access log records on a dedicated background thread.
+ *
+ * <p>{@link #log(RequestOutcome)} only copies a few references into a preallocated ring buffer slot, so event
+ * loops never format, allocate or block on I/O for logging. The writer drains the ring in batches, formats each
+ * batch into one buffer and writes it to the configured file or SLF4J logger. When the writer falls behind and the
+ * ring fills up, records are dropped and counted rather than slowing down requests.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = AccessLogProperties.ENABLED, value = StringUtils.TRUE)
+public class AccessLogWriter implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccessLogWriter.class);
+
+    private final AccessLogRingBuffer ring;
+    private final int batchSize;
+    private final long idleNanos;
+    private final Logger accessLog;
+    private final Writer file;
+    private final StringBuilder batch = new StringBuilder(4096);
+    private final LongAdder written = new LongAdder();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The access log configuration
+     * @throws IOException if the log file cannot be opened
+     */
+    public AccessLogWriter(AccessLogProperties properties) throws IOException {
+        this.ring = new AccessLogRingBuffer(properties.getBufferSize());
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.idleNanos = properties.getFlushInterval().toNanos();
+        this.accessLog = LoggerFactory.getLogger(properties.getLoggerName());
+        this.file = properties.getFile() == null ? null : Files.newBufferedWriter(
+                Paths.get(properties.getFile()), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.thread = new Thread(this::run, "ratpack-access-log");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues a record for the completed request. Never blocks; the record is dropped if the buffer is full.
+     *
+     * @param outcome The request outcome
+     */
+    public void log(RequestOutcome outcome) {
+        long sequence = ring.claim();
+        if (sequence < 0) {
+            return;
+        }
+        Request request = outcome.getRequest();
+        AccessLogRecord record = ring.slot(sequence);
+        record.remoteHost = request.getRemoteAddress().getHost();
+        record.timestamp = request.getTimestamp().toEpochMilli();
+        record.method = request.getMethod().getName();
+        record.uri = request.getRawUri();
+        record.protocol = request.getProtocol();
+        record.status = outcome.getResponse().getStatus().getCode();
+        record.contentLength = outcome.getResponse().getHeaders().get(HttpHeaderNames.CONTENT_LENGTH);
+        record.durationMillis = outcome.getClosedAt().toEpochMilli() - record.timestamp;
+        ring.publish(sequence);
+    }
+
+    /**
+     * Gets the number of records written.
+     *
+     * @return the written count
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Gets the number of records dropped because the buffer was full.
+     *
+     * @return the dropped count
+     */
+    public long getDropped() {
+        return ring.getDropped();
+    }
+
+    /**
+     * Stops the writer thread after it has written the records already queued.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                LOG.warn("Error closing access log file", e);
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            if (writeBatch() == 0) {
+                LockSupport.parkNanos(this, idleNanos);
+            }
+        }
+        while (writeBatch() > 0) {
+            // drain whatever was queued before shutdown
+        }
+    }
+
+    private int writeBatch() {
+        int drained = ring.drain(record -> {
+            record.appendTo(batch);
+            batch.append('\n');
+        }, batchSize);
+        if (drained == 0) {
+            return 0;
+        }
+        try {
+            if (file != null) {
+                file.append(batch);
+                file.flush();
+            } else if (accessLog.isInfoEnabled()) {
+                batch.setLength(batch.length() - 1);
+                accessLog.info(batch.toString());
+            }
+            written.add(drained);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Error writing access log", e);
+        } finally {
+            batch.setLength(0);
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.EventLoop;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.exec.Downstream;
+
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+
+/**
+ * Writes a stream of buffers to an {@link AsynchronousFileChannel}, requesting the next buffer only once the
+ * previous one has been written. Demand therefore follows the disk, and the request body stream stops reading
+ * from the socket while a write is in flight, keeping at most one chunk in memory.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class FileChannelSubscriber implements Subscriber<ByteBuf>, CompletionHandler<Integer, ByteBuf> {
+
+    private final AsynchronousFileChannel channel;
+    private final EventLoop eventLoop;
+    private final Downstream<? super Long> downstream;
+    private Subscription subscription;
+    private long position;
+    private boolean writing;
+    private boolean completed;
+    private boolean done;
+
+    /**
+     * @param channel    The channel to write to, from its current start
+     * @param eventLoop  The event loop of the request, which more of the body is requested on
+     * @param downstream Receives the number of bytes written
+     */
+    FileChannelSubscriber(AsynchronousFileChannel channel, EventLoop eventLoop, Downstream<? super Long> downstream) {
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+        this.downstream = downstream;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        subscription = s;
+        s.request(1);
+    }
+
+    @Override
+    public void onNext(ByteBuf buffer) {
+        if (!buffer.isReadable()) {
+            buffer.release();
+            subscription.request(1);
+            return;
+        }
+        synchronized (this) {
+            writing = true;
+        }
+        write(buffer);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        fail(t);
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            completed = true;
+            if (writing) {
+                return;
+            }
+        }
+        succeed();
+    }
+
+    @Override
+    public void completed(Integer written, ByteBuf buffer) {
+        buffer.skipBytes(written);
+        position += written;
+        if (buffer.isReadable()) {
+            write(buffer);
+            return;
+        }
+        buffer.release();
+        synchronized (this) {
+            writing = false;
+            if (completed) {
+                succeed();
+                return;
+            }
+        }
+        eventLoop.execute(() -> subscription.request(1));
+    }
+
+    @Override
+    public void failed(Throwable t, ByteBuf buffer) {
+        buffer.release();
+        eventLoop.execute(() -> subscription.cancel());
+        fail(t);
+    }
+
+    private void write(ByteBuf buffer) {
+        channel.write(buffer.nioBuffer(), position, buffer, this);
+    }
+
+    private synchronized void succeed() {
+        if (!done) {
+            done = true;
+            downstream.success(position);
+        }
+    }
+
+    private synchronized void fail(Throwable t) {
+        if (!done) {
+            done = true;
+            downstream.error(t);
+        }
+    }
+}
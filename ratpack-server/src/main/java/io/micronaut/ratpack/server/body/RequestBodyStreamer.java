@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.body;
+
+import ratpack.exec.Promise;
+import ratpack.handling.Context;
+
+import javax.inject.Singleton;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams request bodies to disk instead of buffering them in memory, so routes can accept uploads larger than
+ * {@code ratpack.server.max-content-length} in constant memory.
+ *
+ * <p>A route opts in by streaming the body instead of calling {@code request.getBody()}:</p>
+ *
+ * <pre>
+ * chain.post("upload", ctx -&gt; ctx.get(RequestBodyStreamer.class).toTempFile(ctx)
+ *     .then(path -&gt; ctx.render("stored " + Files.size(path) + " bytes")));
+ * </pre>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+public class RequestBodyStreamer {
+
+    private final long maxContentLength;
+    private final Path tempDirectory;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The streaming body configuration
+     */
+    public RequestBodyStreamer(StreamingBodyProperties properties) {
+        long max = properties.getMaxContentLength();
+        this.maxContentLength = max < 0 ? Long.MAX_VALUE : max;
+        this.tempDirectory = properties.getTempDirectory() == null
+                ? Paths.get(System.getProperty("java.io.tmpdir"))
+                : Paths.get(properties.getTempDirectory());
+    }
+
+    /**
+     * Streams the request body to a new temporary file. The file is deleted when the request completes, so it
+     * must be moved or copied to be kept.
+     *
+     * @param ctx The request context
+     * @return a promise for the file
+     */
+    public Promise<Path> toTempFile(Context ctx) {
+        return Promise.flatten(() -> {
+            Path file = Files.createTempFile(tempDirectory, "ratpack-upload", ".tmp");
+            ctx.onClose(outcome -> Files.deleteIfExists(file));
+            return toFile(ctx, file).map(written -> file);
+        });
+    }
+
+    /**
+     * Streams the request body to a file, replacing its contents.
+     *
+     * @param ctx  The request context
+     * @param file The file
+     * @return a promise for the number of bytes written
+     */
+    public Promise<Long> toFile(Context ctx, Path file) {
+        return Promise.flatten(() -> {
+            AsynchronousFileChannel channel = AsynchronousFileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return toChannel(ctx, channel).wiretap(result -> channel.close());
+        });
+    }
+
+    /**
+     * Streams the request body to a channel, starting at position zero. The channel is left open.
+     *
+     * @param ctx     The request context
+     * @param channel The channel
+     * @return a promise for the number of bytes written
+     */
+    public Promise<Long> toChannel(Context ctx, AsynchronousFileChannel channel) {
+        return Promise.async(downstream -> ctx.getRequest().getBodyStream(maxContentLength)
+                .subscribe(new FileChannelSubscriber(channel, ctx.getExecution().getEventLoop(), downstream)));
+    }
+}
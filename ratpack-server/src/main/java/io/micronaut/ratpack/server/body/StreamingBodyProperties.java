@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.body;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+import javax.annotation.Nullable;
+
+/**
+ * Configuration for request bodies streamed to disk by the {@link RequestBodyStreamer}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(StreamingBodyProperties.PREFIX)
+public class StreamingBodyProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".streaming-body";
+
+    private long maxContentLength = 100L * 1024 * 1024;
+    private String tempDirectory = null;
+
+    /**
+     * Gets the maxContentLength, the largest body that may be streamed, replacing
+     * {@code ratpack.server.max-content-length} for streamed bodies. Defaults to 100MB. A negative value removes
+     * the limit; only opt in to that where clients are trusted, as any client may otherwise fill the temporary
+     * directory's disk.
+     *
+     * @return the maxContentLength, or a negative value for no limit
+     */
+    public long getMaxContentLength() {
+        return maxContentLength;
+    }
+
+    /**
+     * Sets the maxContentLength.
+     *
+     * @param maxContentLength the maxContentLength
+     */
+    public void setMaxContentLength(long maxContentLength) {
+        this.maxContentLength = maxContentLength;
+    }
+
+    /**
+     * Gets the tempDirectory.
+     *
+     * @return the tempDirectory, or null to use {@code java.io.tmpdir}
+     */
+    @Nullable
+    public String getTempDirectory() {
+        return tempDirectory;
+    }
+
+    /**
+     * Sets the tempDirectory.
+     *
+     * @param tempDirectory the tempDirectory
+     */
+    public void setTempDirectory(@Nullable String tempDirectory) {
+        this.tempDirectory = tempDirectory;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.bulkhead;
+
+import ratpack.exec.Promise;
+import ratpack.func.Factory;
+
+/**
+ * Runs blocking work for one dependency in isolation, so a slow dependency only slows the routes that call it.
+ *
+ * <p>Bulkheads are configured under {@code ratpack.server.bulkheads} and looked up from the
+ * {@link BulkheadRegistry}:</p>
+ *
+ * <pre>
+ * chain.get("stock", ctx -&gt; ctx.get(BulkheadRegistry.class).get("inventory-db")
+ *     .blocking(() -&gt; inventory.findAll())
+ *     .then(ctx::render));
+ * </pre>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public interface Bulkhead {
+
+    /**
+     * Gets the name.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Runs blocking work in the bulkhead.
+     *
+     * @param factory The blocking work
+     * @param <T>     The type of the value
+     * @return a promise for the value, failing with {@link BulkheadFullException} if the call is rejected
+     */
+    <T> Promise<T> blocking(Factory<T> factory);
+
+    /**
+     * Gets the most calls running at once.
+     *
+     * @return the max concurrent calls
+     */
+    int getMaxConcurrent();
+
+    /**
+     * Gets the number of calls running.
+     *
+     * @return the active count
+     */
+    int getActive();
+
+    /**
+     * Gets the number of calls waiting for a free slot.
+     *
+     * @return the queued count
+     */
+    int getQueued();
+
+    /**
+     * Gets the number of calls rejected because the bulkhead was full.
+     *
+     * @return the rejected count
+     */
+    long getRejected();
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.bulkhead;
+
+/**
+ * Signals that a call was rejected because its bulkhead and queue were full.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkhead;
+
+    /**
+     * Default constructor.
+     *
+     * @param bulkhead The name of the bulkhead
+     */
+    public BulkheadFullException(String bulkhead) {
+        super("Bulkhead '" + bulkhead + "' is full");
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Gets the bulkhead.
+     *
+     * @return the bulkhead name
+     */
+    public String getBulkhead() {
+        return bulkhead;
+    }
+}
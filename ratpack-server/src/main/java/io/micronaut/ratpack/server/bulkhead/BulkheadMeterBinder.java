@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+
+/**
+ * Binds the saturation of each bulkhead to Micrometer when it is on the classpath.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+@Requires(beans = BulkheadRegistry.class)
+public class BulkheadMeterBinder implements MeterBinder {
+
+    private final BulkheadRegistry bulkheads;
+
+    /**
+     * Default constructor.
+     *
+     * @param bulkheads The bulkheads
+     */
+    public BulkheadMeterBinder(BulkheadRegistry bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Bulkhead bulkhead : bulkheads.getBulkheads()) {
+            Gauge.builder("ratpack.server.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .tag("name", bulkhead.getName())
+                    .description("Calls running in the bulkhead")
+                    .register(registry);
+            Gauge.builder("ratpack.server.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                    .tag("name", bulkhead.getName())
+                    .description("Calls waiting for a free slot in the bulkhead")
+                    .register(registry);
+            Gauge.builder("ratpack.server.bulkhead.saturation", bulkhead,
+                    b -> (double) b.getActive() / b.getMaxConcurrent())
+                    .tag("name", bulkhead.getName())
+                    .description("Fraction of the bulkhead slots in use")
+                    .register(registry);
+            FunctionCounter.builder("ratpack.server.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                    .tag("name", bulkhead.getName())
+                    .description("Calls rejected because the bulkhead was full")
+                    .register(registry);
+        }
+    }
+}
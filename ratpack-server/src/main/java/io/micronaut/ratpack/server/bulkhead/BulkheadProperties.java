@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.bulkhead;
+
+import io.micronaut.context.annotation.EachProperty;
+import io.micronaut.context.annotation.Parameter;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+/**
+ * Configuration for a single named bulkhead, for example {@code ratpack.server.bulkheads.inventory-db.max-concurrent}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@EachProperty(BulkheadProperties.PREFIX)
+public class BulkheadProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".bulkheads";
+
+    private final String name;
+    private Type type = Type.THREAD_POOL;
+    private int maxConcurrent = 10;
+    private int queueSize = 0;
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.FAIL;
+
+    /**
+     * Default constructor.
+     *
+     * @param name The name of the bulkhead
+     */
+    public BulkheadProperties(@Parameter String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the type.
+     *
+     * @return the type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Sets the type.
+     *
+     * @param type the type
+     */
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * Gets the maxConcurrent, the most calls running at once.
+     *
+     * @return the maxConcurrent
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Sets the maxConcurrent.
+     *
+     * @param maxConcurrent the maxConcurrent
+     */
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Gets the queueSize, the most calls waiting for a free slot before calls are rejected.
+     *
+     * @return the queueSize
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Sets the queueSize.
+     *
+     * @param queueSize the queueSize
+     */
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Gets the rejectionPolicy.
+     *
+     * @return the rejectionPolicy
+     */
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    /**
+     * Sets the rejectionPolicy.
+     *
+     * @param rejectionPolicy the rejectionPolicy
+     */
+    public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    /**
+     * How a bulkhead isolates its calls.
+     */
+    public enum Type {
+        /**
+         * Calls run on a thread pool owned by the bulkhead.
+         */
+        THREAD_POOL,
+        /**
+         * Calls run on the shared Ratpack blocking pool, limited to {@code max-concurrent} at a time.
+         */
+        SEMAPHORE
+    }
+
+    /**
+     * What happens to a call when the bulkhead and its queue are full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * The call fails with a {@link BulkheadFullException}.
+         */
+        FAIL,
+        /**
+         * The call runs on the shared Ratpack blocking pool instead.
+         */
+        SHARED_POOL
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.bulkhead;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the bulkheads configured under {@code ratpack.server.bulkheads}. It is a Micronaut bean and therefore
+ * available from the Ratpack registry.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+public class BulkheadRegistry implements AutoCloseable {
+
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The bulkhead configurations
+     */
+    public BulkheadRegistry(List<BulkheadProperties> properties) {
+        for (BulkheadProperties bulkhead : properties) {
+            bulkheads.put(bulkhead.getName(), bulkhead.getType() == BulkheadProperties.Type.SEMAPHORE
+                    ? new SemaphoreBulkhead(bulkhead)
+                    : new ThreadPoolBulkhead(bulkhead));
+        }
+    }
+
+    /**
+     * Gets a bulkhead by name.
+     *
+     * @param name The name of the bulkhead
+     * @return the bulkhead
+     * @throws IllegalArgumentException if no bulkhead with the name is configured
+     */
+    public Bulkhead get(String name) {
+        Bulkhead bulkhead = bulkheads.get(name);
+        if (bulkhead == null) {
+            throw new IllegalArgumentException("No bulkhead configured with name '" + name + "'");
+        }
+        return bulkhead;
+    }
+
+    /**
+     * Gets every configured bulkhead.
+     *
+     * @return the bulkheads
+     */
+    public Collection<Bulkhead> getBulkheads() {
+        return Collections.unmodifiableCollection(bulkheads.values());
+    }
+
+    /**
+     * Shuts down the bulkhead thread pools.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            if (bulkhead instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) bulkhead).close();
+                } catch (Exception ignored) {
+                    // thread pools do not fail to shut down
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.bulkhead;
+
+import ratpack.exec.Blocking;
+import ratpack.exec.Promise;
+import ratpack.exec.Throttle;
+import ratpack.func.Factory;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Bulkhead} that limits how many of its calls use the shared Ratpack blocking pool at once, queueing the
+ * rest in a Ratpack {@link Throttle}. Work runs bound to the execution like any other {@link Blocking} call.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class SemaphoreBulkhead implements Bulkhead {
+
+    private final String name;
+    private final Throttle throttle;
+    private final int queueSize;
+    private final boolean fallback;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param properties The bulkhead configuration
+     */
+    SemaphoreBulkhead(BulkheadProperties properties) {
+        this.name = properties.getName();
+        this.throttle = Throttle.ofSize(Math.max(1, properties.getMaxConcurrent()));
+        this.queueSize = Math.max(0, properties.getQueueSize());
+        this.fallback = properties.getRejectionPolicy() == BulkheadProperties.RejectionPolicy.SHARED_POOL;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public <T> Promise<T> blocking(Factory<T> factory) {
+        return Promise.flatten(() -> {
+            // checked before joining the throttle, so the queue may briefly exceed its size under contention
+            if (throttle.getActive() >= throttle.getSize() && throttle.getWaiting() >= queueSize) {
+                rejected.increment();
+                return fallback ? Blocking.get(factory) : Promise.error(new BulkheadFullException(name));
+            }
+            return Blocking.get(factory).throttled(throttle);
+        });
+    }
+
+    @Override
+    public int getMaxConcurrent() {
+        return throttle.getSize();
+    }
+
+    @Override
+    public int getActive() {
+        return throttle.getActive();
+    }
+
+    @Override
+    public int getQueued() {
+        return throttle.getWaiting();
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
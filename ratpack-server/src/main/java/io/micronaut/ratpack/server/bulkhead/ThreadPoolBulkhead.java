@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.bulkhead;
+
+import ratpack.exec.Blocking;
+import ratpack.exec.Promise;
+import ratpack.func.Factory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Bulkhead} with its own bounded thread pool. Work runs outside the Ratpack execution, so it cannot
+ * use execution scoped state such as {@code Execution.current()}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class ThreadPoolBulkhead implements Bulkhead, AutoCloseable {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final boolean fallback;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param properties The bulkhead configuration
+     */
+    ThreadPoolBulkhead(BulkheadProperties properties) {
+        this.name = properties.getName();
+        int threads = Math.max(1, properties.getMaxConcurrent());
+        BlockingQueue<Runnable> queue = properties.getQueueSize() > 0
+                ? new ArrayBlockingQueue<>(properties.getQueueSize())
+                : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue,
+                threadFactory(name), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.fallback = properties.getRejectionPolicy() == BulkheadProperties.RejectionPolicy.SHARED_POOL;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public <T> Promise<T> blocking(Factory<T> factory) {
+        return Promise.<Promise<T>>async(downstream -> {
+            try {
+                executor.execute(() -> {
+                    try {
+                        downstream.success(Promise.value(factory.create()));
+                    } catch (Throwable t) {
+                        downstream.error(t);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                downstream.success(fallback ? Blocking.get(factory) : Promise.error(new BulkheadFullException(name)));
+            }
+        }).flatMap(promise -> promise);
+    }
+
+    @Override
+    public int getMaxConcurrent() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "ratpack-bulkhead-" + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
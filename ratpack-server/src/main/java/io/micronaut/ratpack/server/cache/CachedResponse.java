@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaders;
+
+/**
+ * A response held by the {@link ResponseCache}.
+ *
+ * <p>The body is a reference counted buffer owned by the cache. Instances handed out by
+ * {@link ResponseCache#get(String, java.util.function.Function)} carry their own retained duplicate of the body,
+ * which the caller must send or release.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public final class CachedResponse {
+
+    private final int status;
+    private final HttpHeaders headers;
+    private final ByteBuf body;
+    private final long createdAt;
+    private final long expiresAt;
+
+    /**
+     * Default constructor.
+     *
+     * @param status    The response status
+     * @param headers   The response headers
+     * @param body      The response body
+     * @param createdAt When the response was cached, in epoch millis
+     * @param expiresAt When the response expires, in epoch millis
+     */
+    public CachedResponse(int status, HttpHeaders headers, ByteBuf body, long createdAt, long expiresAt) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the status.
+     *
+     * @return the status
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the headers.
+     *
+     * @return the headers
+     */
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the body.
+     *
+     * @return the body
+     */
+    public ByteBuf getBody() {
+        return body;
+    }
+
+    /**
+     * Gets the time the response was cached.
+     *
+     * @return the epoch millis
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the time the response expires.
+     *
+     * @return the epoch millis
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @param now The current epoch millis
+     * @return Whether the response has expired
+     */
+    boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    /**
+     * @return A copy of this response sharing a retained duplicate of the body
+     */
+    CachedResponse retainedDuplicate() {
+        return new CachedResponse(status, headers, body.retainedDuplicate(), createdAt, expiresAt);
+    }
+}
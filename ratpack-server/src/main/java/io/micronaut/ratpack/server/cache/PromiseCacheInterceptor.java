@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.cache;
+
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.cache.AsyncCache;
+import io.micronaut.cache.CacheManager;
+import io.micronaut.cache.interceptor.CacheKeyGenerator;
+import io.micronaut.cache.interceptor.DefaultCacheKeyGenerator;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.type.Argument;
+import io.micronaut.ratpack.server.coalesce.RequestCoalescer;
+import ratpack.exec.Promise;
+
+import javax.inject.Singleton;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Intercepts methods annotated with {@link PromiseCacheable}.
+ *
+ * <p>Lookups and stores use the asynchronous view of the Micronaut cache and resume the calling execution on its
+ * own event loop, so a cached method never blocks. Concurrent misses are coalesced with the
+ * {@link RequestCoalescer}. A failure to store a value is ignored; the value is still returned.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = CacheManager.class)
+public class PromiseCacheInterceptor implements MethodInterceptor<Object, Object> {
+
+    private final CacheManager<?> cacheManager;
+    private final RequestCoalescer coalescer;
+    private final CacheKeyGenerator keyGenerator = new DefaultCacheKeyGenerator();
+
+    /**
+     * Default constructor.
+     *
+     * @param cacheManager The Micronaut cache manager
+     * @param coalescer    Shares a single invocation between concurrent misses
+     */
+    public PromiseCacheInterceptor(CacheManager<?> cacheManager, RequestCoalescer coalescer) {
+        this.cacheManager = cacheManager;
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        if (!Promise.class.isAssignableFrom(context.getReturnType().getType())) {
+            return context.proceed();
+        }
+        String cacheName = context.stringValue(PromiseCacheable.class)
+                .orElseThrow(() -> new IllegalStateException("No cache name given for " + context));
+        AsyncCache<?> cache = cacheManager.getCache(cacheName).async();
+        Object key = keyGenerator.generateKey(context, context.getParameterValues());
+        Argument<Object> valueType = (Argument<Object>) context.getReturnType().asArgument()
+                .getFirstTypeVariable()
+                .orElse(Argument.OBJECT_ARGUMENT);
+        return Promise.<Optional<Object>>async(downstream -> downstream.accept(cache.get(key, valueType)))
+                .flatMap(cached -> cached.isPresent()
+                        ? Promise.value(cached.get())
+                        : coalescer.coalesce(Arrays.asList(cacheName, key), () -> load(context, cache, key)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Promise<Object> load(MethodInvocationContext<Object, Object> context, AsyncCache<?> cache, Object key) {
+        Promise<Object> promise = (Promise<Object>) context.proceed();
+        return promise.flatMap(value -> {
+            if (value == null) {
+                return Promise.value(null);
+            }
+            return Promise.<Boolean>async(downstream -> downstream.accept(cache.put(key, value)))
+                    .mapError(e -> Boolean.FALSE)
+                    .map(stored -> value);
+        });
+    }
+}
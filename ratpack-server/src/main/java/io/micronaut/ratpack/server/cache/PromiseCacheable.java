@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.cache;
+
+import io.micronaut.aop.Around;
+import io.micronaut.context.annotation.Type;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the resolved value of a method returning a Ratpack {@link ratpack.exec.Promise}.
+ *
+ * <p>The method arguments form the cache key. A hit is served without invoking the method; concurrent misses
+ * for the same key share one invocation, and its value is stored once the promise resolves. Errors are never
+ * cached. Methods not returning a promise are invoked as usual.</p>
+ *
+ * <pre>
+ * &#64;PromiseCacheable("products")
+ * public Promise&lt;Product&gt; find(String id) {
+ *     return httpClient.get(uri(id)).map(this::parse);
+ * }
+ * </pre>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Around
+@Type(PromiseCacheInterceptor.class)
+public @interface PromiseCacheable {
+
+    /**
+     * @return The name of the Micronaut cache to store values in
+     */
+    String value();
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.cache;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Size bounded, least recently used store of {@link CachedResponse} bodies.
+ *
+ * <p>Entries are keyed by method and URI. Each entry holds one variant per combination of the request header
+ * values named in the response {@code Vary} header.</p>
+ *
+ * <p>Keys are spread over independently locked stripes, each keeping its own access order, so lookups of
+ * different keys do not contend. The size bound is shared: a stripe that pushes the cache over it evicts its own
+ * entries first and then those of the other stripes, one stripe lock at a time. Expired responses are always
+ * evicted before live ones, whatever their recency. Recency is therefore tracked per stripe rather than
+ * globally. The size and the hit, miss and eviction counts are read without locking.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = ResponseCacheProperties.ENABLED, value = StringUtils.TRUE)
+public class ResponseCache {
+
+    private static final int DEFAULT_STRIPES = 16;
+
+    private final long maxSize;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+    private final AtomicLong size = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The cache configuration
+     */
+    @Inject
+    public ResponseCache(ResponseCacheProperties properties) {
+        this(properties.getMaxSize(), DEFAULT_STRIPES, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor taking an explicit clock, using a single stripe so recency is exact.
+     *
+     * @param maxSize The maximum number of body bytes to hold
+     * @param clock   Supplies the current epoch millis
+     */
+    ResponseCache(long maxSize, LongSupplier clock) {
+        this(maxSize, 1, clock);
+    }
+
+    /**
+     * Constructor taking an explicit stripe count and clock.
+     *
+     * @param maxSize The maximum number of body bytes to hold
+     * @param stripes The number of stripes, rounded up to a power of two
+     * @param clock   Supplies the current epoch millis
+     */
+    ResponseCache(long maxSize, int stripes, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+        int count = 1;
+        while (count < stripes) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Looks up a response.
+     *
+     * @param key           The method and URI of the request
+     * @param requestHeader Resolves a request header name to its value
+     * @return a response owning a retained duplicate of the cached body, or null on a miss
+     */
+    @Nullable
+    public CachedResponse get(String key, Function<String, String> requestHeader) {
+        Stripe stripe = stripeFor(key);
+        CachedResponse hit;
+        stripe.lock.lock();
+        try {
+            hit = stripe.get(key, requestHeader, clock.getAsLong());
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (hit == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return hit;
+    }
+
+    /**
+     * Stores a response, taking ownership of its body.
+     *
+     * @param key           The method and URI of the request
+     * @param vary          The request header names the response varies by
+     * @param requestHeader Resolves a request header name to its value
+     * @param response      The response
+     */
+    public void put(String key, String[] vary, Function<String, String> requestHeader, CachedResponse response) {
+        if (response.getBody().readableBytes() > maxSize) {
+            response.getBody().release();
+            return;
+        }
+        Stripe stripe = stripeFor(key);
+        long now = clock.getAsLong();
+        stripe.lock.lock();
+        try {
+            stripe.put(key, vary, requestHeader, response);
+            stripe.evict(now);
+        } finally {
+            stripe.lock.unlock();
+        }
+        for (int i = 0; i < stripes.length && size.get() > maxSize; i++) {
+            Stripe other = stripes[i];
+            if (other != stripe) {
+                other.lock.lock();
+                try {
+                    other.evict(now);
+                } finally {
+                    other.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every response.
+     */
+    @PreDestroy
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of body bytes held.
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    /**
+     * Gets the number of cache hits.
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of cache misses.
+     *
+     * @return the misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of responses evicted to stay within the size bound.
+     *
+     * @return the evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private void release(CachedResponse response) {
+        size.addAndGet(-response.getBody().readableBytes());
+        response.getBody().release();
+    }
+
+    /**
+     * A lock and the entries it guards, in access order.
+     */
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        CachedResponse get(String key, Function<String, String> requestHeader, long now) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            String variant = entry.variantKey(requestHeader);
+            CachedResponse response = entry.variants.get(variant);
+            if (response == null) {
+                return null;
+            }
+            if (response.isExpired(now)) {
+                entry.variants.remove(variant);
+                release(response);
+                if (entry.variants.isEmpty()) {
+                    entries.remove(key);
+                }
+                return null;
+            }
+            return response.retainedDuplicate();
+        }
+
+        void put(String key, String[] vary, Function<String, String> requestHeader, CachedResponse response) {
+            Entry entry = entries.get(key);
+            if (entry == null || !Arrays.equals(entry.vary, vary)) {
+                if (entry != null) {
+                    entry.variants.values().forEach(ResponseCache.this::release);
+                }
+                entry = new Entry(vary);
+                entries.put(key, entry);
+            }
+            size.addAndGet(response.getBody().readableBytes());
+            CachedResponse previous = entry.variants.put(entry.variantKey(requestHeader), response);
+            if (previous != null) {
+                release(previous);
+            }
+        }
+
+        void evict(long now) {
+            if (size.get() <= maxSize) {
+                return;
+            }
+            Iterator<Entry> all = entries.values().iterator();
+            while (size.get() > maxSize && all.hasNext()) {
+                Entry entry = all.next();
+                Iterator<CachedResponse> variants = entry.variants.values().iterator();
+                while (variants.hasNext()) {
+                    CachedResponse response = variants.next();
+                    if (response.isExpired(now)) {
+                        release(response);
+                        evictions.increment();
+                        variants.remove();
+                    }
+                }
+                if (entry.variants.isEmpty()) {
+                    all.remove();
+                }
+            }
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (size.get() > maxSize && eldest.hasNext()) {
+                Entry entry = eldest.next();
+                entry.variants.values().forEach(ResponseCache.this::release);
+                evictions.add(entry.variants.size());
+                eldest.remove();
+            }
+        }
+
+        void clear() {
+            entries.values().forEach(entry -> entry.variants.values().forEach(ResponseCache.this::release));
+            entries.clear();
+        }
+    }
+
+    /**
+     * The variants cached for a single method and URI.
+     */
+    private static final class Entry {
+        private final String[] vary;
+        private final Map<String, CachedResponse> variants = new HashMap<>(4);
+
+        Entry(String[] vary) {
+            this.vary = vary;
+        }
+
+        String variantKey(Function<String, String> requestHeader) {
+            if (vary.length == 0) {
+                return "";
+            }
+            StringBuilder key = new StringBuilder();
+            for (String name : vary) {
+                String value = requestHeader.apply(name);
+                key.append(value == null ? "" : value).append('\u0000');
+            }
+            return key.toString();
+        }
+    }
+}
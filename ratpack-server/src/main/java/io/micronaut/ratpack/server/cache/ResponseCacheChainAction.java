@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.cache;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.core.util.StringUtils;
+import ratpack.func.Action;
+import ratpack.handling.Chain;
+
+import javax.inject.Singleton;
+import java.util.List;
+
+/**
+ * Installs the {@link ResponseCacheHandler} ahead of the user handlers.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = ResponseCacheProperties.ENABLED, value = StringUtils.TRUE)
+public class ResponseCacheChainAction implements Action<Chain>, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 500;
+
+    private final ResponseCacheHandler handler;
+
+    /**
+     * Default constructor.
+     *
+     * @param cache      The cache
+     * @param properties The cache configuration
+     * @param routes     The cached routes
+     */
+    public ResponseCacheChainAction(ResponseCache cache,
+                                    ResponseCacheProperties properties,
+                                    List<ResponseCacheRouteProperties> routes) {
+        this.handler = new ResponseCacheHandler(cache, properties, routes);
+    }
+
+    @Override
+    public void execute(Chain chain) {
+        chain.all(handler);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
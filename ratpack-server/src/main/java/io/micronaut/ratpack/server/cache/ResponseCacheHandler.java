@@ -0,0 +1,246 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.http.Headers;
+import ratpack.http.MutableHeaders;
+import ratpack.http.Request;
+import ratpack.path.PathBinder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves {@code GET} requests from the {@link ResponseCache} and caches the responses of misses.
+ *
+ * <p>Ratpack offers no public way to observe the bytes of a response, so a miss is captured by a
+ * {@link ResponseCaptureHandler} on the connection's pipeline. The capture is tied to its request: any capture
+ * left over from an earlier request on the connection is removed first, and the capture is detached when the
+ * request closes, however the response ended.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class ResponseCacheHandler implements Handler {
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|,)\\s*(s-maxage|max-age)\\s*=\\s*\"?(\\d+)");
+    private static final List<String> NOT_STORED_HEADERS = Arrays.asList(
+            HttpHeaderNames.CONNECTION.toString(),
+            HttpHeaderNames.CONTENT_LENGTH.toString(),
+            HttpHeaderNames.TRANSFER_ENCODING.toString(),
+            HttpHeaderNames.DATE.toString(),
+            HttpHeaderNames.KEEP_ALIVE.toString()
+    );
+
+    private final ResponseCache cache;
+    private final int maxEntrySize;
+    private final Duration defaultTtl;
+    private final List<Route> routes = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param cache      The cache
+     * @param properties The cache configuration
+     * @param routes     The cached routes, or empty to cache every route
+     */
+    public ResponseCacheHandler(ResponseCache cache,
+                                ResponseCacheProperties properties,
+                                List<ResponseCacheRouteProperties> routes) {
+        this.cache = cache;
+        this.maxEntrySize = properties.getMaxEntrySize();
+        this.defaultTtl = properties.getDefaultTtl();
+        for (ResponseCacheRouteProperties route : routes) {
+            this.routes.add(new Route(
+                    PathBinder.parse(route.getPath(), false),
+                    route.getTtl() != null ? route.getTtl() : defaultTtl
+            ));
+        }
+    }
+
+    @Override
+    public void handle(Context ctx) {
+        Request request = ctx.getRequest();
+        Duration ttl = request.getMethod().isGet() ? ttl(ctx) : null;
+        Headers requestHeaders = request.getHeaders();
+        String requestCacheControl = requestHeaders.get(HttpHeaderNames.CACHE_CONTROL);
+        if (ttl == null
+                || requestHeaders.contains(HttpHeaderNames.AUTHORIZATION)
+                || contains(requestCacheControl, HttpHeaderValues.NO_STORE)) {
+            ctx.next();
+            return;
+        }
+
+        String key = "GET " + request.getRawUri();
+        Function<String, String> requestHeader = name -> {
+            List<String> values = requestHeaders.getAll(name);
+            return values.isEmpty() ? null : String.join(",", values);
+        };
+        if (!contains(requestCacheControl, HttpHeaderValues.NO_CACHE)) {
+            CachedResponse cached = cache.get(key, requestHeader);
+            if (cached != null) {
+                send(ctx, cached);
+                return;
+            }
+        }
+
+        Channel channel = ctx.getDirectChannelAccess().getChannel();
+        ChannelPipeline pipeline = channel.pipeline();
+        if (pipeline.get(ResponseCaptureHandler.NAME) != null) {
+            pipeline.remove(ResponseCaptureHandler.NAME);
+        }
+        ResponseCaptureHandler capture = new ResponseCaptureHandler(maxEntrySize,
+                (response, body) -> store(key, requestHeader, ttl, response, body));
+        pipeline.addLast(ResponseCaptureHandler.NAME, capture);
+        ctx.onClose(outcome -> capture.detach(channel));
+        ctx.next();
+    }
+
+    private Duration ttl(Context ctx) {
+        if (routes.isEmpty()) {
+            return defaultTtl;
+        }
+        for (Route route : routes) {
+            if (route.binder.bind(ctx.getPathBinding()).isPresent()) {
+                return route.ttl;
+            }
+        }
+        return null;
+    }
+
+    private void send(Context ctx, CachedResponse cached) {
+        MutableHeaders headers = ctx.getResponse().getHeaders();
+        for (Map.Entry<String, String> header : cached.getHeaders()) {
+            headers.add(header.getKey(), header.getValue());
+        }
+        long now = System.currentTimeMillis();
+        headers.set(HttpHeaderNames.AGE, TimeUnit.MILLISECONDS.toSeconds(Math.max(0, now - cached.getCreatedAt())));
+        ctx.getResponse().status(cached.getStatus()).send(cached.getBody());
+    }
+
+    private void store(String key,
+                       Function<String, String> requestHeader,
+                       Duration ttl,
+                       HttpResponse response,
+                       ByteBuf body) {
+        HttpHeaders responseHeaders = response.headers();
+        String cacheControl = responseHeaders.get(HttpHeaderNames.CACHE_CONTROL);
+        String[] vary = vary(responseHeaders);
+        if (response.status().code() != HttpResponseStatus.OK.code()
+                || vary == null
+                || responseHeaders.contains(HttpHeaderNames.SET_COOKIE)
+                || contains(cacheControl, HttpHeaderValues.NO_STORE)
+                || contains(cacheControl, HttpHeaderValues.NO_CACHE)
+                || contains(cacheControl, HttpHeaderValues.PRIVATE)) {
+            body.release();
+            return;
+        }
+        long maxAge = maxAgeSeconds(cacheControl);
+        long ttlMillis = maxAge >= 0 ? TimeUnit.SECONDS.toMillis(maxAge) : ttl.toMillis();
+        if (ttlMillis <= 0) {
+            body.release();
+            return;
+        }
+        HttpHeaders stored = new DefaultHttpHeaders(false);
+        for (Map.Entry<String, String> header : responseHeaders) {
+            if (!NOT_STORED_HEADERS.contains(header.getKey().toLowerCase())) {
+                stored.add(header.getKey(), header.getValue());
+            }
+        }
+        long now = System.currentTimeMillis();
+        cache.put(key, vary, requestHeader,
+                new CachedResponse(response.status().code(), stored, body, now, now + ttlMillis));
+    }
+
+    private static String[] vary(HttpHeaders responseHeaders) {
+        List<String> names = new ArrayList<>();
+        for (String value : responseHeaders.getAll(HttpHeaderNames.VARY)) {
+            for (String name : value.split(",")) {
+                String trimmed = name.trim().toLowerCase();
+                if (trimmed.equals("*")) {
+                    return null;
+                }
+                if (!trimmed.isEmpty()) {
+                    names.add(trimmed);
+                }
+            }
+        }
+        Collections.sort(names);
+        return names.toArray(new String[0]);
+    }
+
+    private static long maxAgeSeconds(String cacheControl) {
+        if (cacheControl == null) {
+            return -1;
+        }
+        long maxAge = -1;
+        Matcher matcher = MAX_AGE.matcher(cacheControl.toLowerCase());
+        while (matcher.find()) {
+            long value = Long.parseLong(matcher.group(2));
+            if (matcher.group(1).equals("s-maxage")) {
+                return value;
+            }
+            maxAge = value;
+        }
+        return maxAge;
+    }
+
+    private static boolean contains(String cacheControl, CharSequence directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String part : cacheControl.split(",")) {
+            String trimmed = part.trim();
+            int eq = trimmed.indexOf('=');
+            if ((eq < 0 ? trimmed : trimmed.substring(0, eq)).equalsIgnoreCase(directive.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A cached route and its time to live.
+     */
+    private static final class Route {
+        private final PathBinder binder;
+        private final Duration ttl;
+
+        Route(PathBinder binder, Duration ttl) {
+            this.binder = binder;
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+
+/**
+ * Publishes the {@link ResponseCache} statistics to Micrometer.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+@Requires(beans = ResponseCache.class)
+public class ResponseCacheMeterBinder implements MeterBinder {
+
+    private final ResponseCache cache;
+
+    /**
+     * Default constructor.
+     *
+     * @param cache The cache
+     */
+    public ResponseCacheMeterBinder(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ratpack.server.cache.size", cache, ResponseCache::getSize)
+                .description("Body bytes held by the response cache")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.cache.gets", cache, ResponseCache::getHits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.cache.gets", cache, ResponseCache::getMisses)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.cache.evictions", cache, ResponseCache::getEvictions)
+                .description("Responses evicted from the response cache")
+                .register(registry);
+    }
+}
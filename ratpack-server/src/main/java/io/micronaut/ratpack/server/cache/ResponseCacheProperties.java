@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.cache;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the in-memory response cache.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(ResponseCacheProperties.PREFIX)
+public class ResponseCacheProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".cache";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private long maxSize = 64L * 1024 * 1024;
+    private int maxEntrySize = 1024 * 1024;
+    private Duration defaultTtl = Duration.ofSeconds(60);
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the maxSize, the total number of body bytes the cache may hold.
+     *
+     * @return the maxSize
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maxSize.
+     *
+     * @param maxSize the maxSize
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the maxEntrySize, the largest body that will be cached.
+     *
+     * @return the maxEntrySize
+     */
+    public int getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Sets the maxEntrySize.
+     *
+     * @param maxEntrySize the maxEntrySize
+     */
+    public void setMaxEntrySize(int maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Gets the defaultTtl.
+     *
+     * @return the defaultTtl
+     */
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    /**
+     * Sets the defaultTtl.
+     *
+     * @param defaultTtl the defaultTtl
+     */
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.cache;
+
+import io.micronaut.context.annotation.EachProperty;
+import io.micronaut.context.annotation.Parameter;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * Configuration for a single cached route, for example {@code ratpack.server.cache.routes.products.path}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@EachProperty(ResponseCacheProperties.PREFIX + ".routes")
+public class ResponseCacheRouteProperties {
+
+    private final String name;
+    private String path = "";
+    private Duration ttl = null;
+
+    /**
+     * Default constructor.
+     *
+     * @param name The name of the route
+     */
+    public ResponseCacheRouteProperties(@Parameter String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the path, a Ratpack path binding matched as a prefix of the request path.
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Sets the path.
+     *
+     * @param path the path
+     */
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Gets the ttl.
+     *
+     * @return the ttl, or null to use the default
+     */
+    @Nullable
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Sets the ttl.
+     *
+     * @param ttl the ttl
+     */
+    public void setTtl(@Nullable Duration ttl) {
+        this.ttl = ttl;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Outbound handler added to the channel pipeline for the duration of a single response. It passes every
+ * message through untouched while keeping retained duplicates of the body buffers, so the body can be cached
+ * without copying it.
+ *
+ * <p>The handler is bound to one response: it leaves the pipeline once it has seen the last content, and gives up
+ * without caching if it sees the start of another response. The {@link ResponseCacheHandler} also detaches it
+ * when the request closes, so a response that ends without a last content, or never starts, cannot leave it
+ * behind for the next request on a keep-alive connection.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class ResponseCaptureHandler extends ChannelOutboundHandlerAdapter {
+
+    static final String NAME = "responseCapture";
+
+    private final int maxBytes;
+    private final BiConsumer<HttpResponse, ByteBuf> onComplete;
+    private HttpResponse response;
+    private CompositeByteBuf body;
+
+    /**
+     * @param maxBytes   The largest body to capture
+     * @param onComplete Receives the response headers and the captured body, which it must release
+     */
+    ResponseCaptureHandler(int maxBytes, BiConsumer<HttpResponse, ByteBuf> onComplete) {
+        this.maxBytes = maxBytes;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        boolean done;
+        try {
+            done = capture(ctx, msg);
+        } catch (RuntimeException e) {
+            done = true;
+            discard();
+        }
+        ctx.write(msg, promise);
+        if (done) {
+            ctx.pipeline().remove(this);
+        }
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        discard();
+    }
+
+    /**
+     * Removes the handler from the pipeline, if still there, discarding anything captured.
+     *
+     * @param channel The channel it was added to
+     */
+    void detach(Channel channel) {
+        channel.eventLoop().execute(() -> {
+            ChannelPipeline pipeline = channel.pipeline();
+            if (pipeline.context(this) != null) {
+                pipeline.remove(this);
+            }
+        });
+    }
+
+    private boolean capture(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof HttpResponse) {
+            if (response != null) {
+                // the start of another response, which is not ours to capture
+                discard();
+                return true;
+            }
+            response = (HttpResponse) msg;
+            body = ctx.alloc().compositeBuffer(Integer.MAX_VALUE);
+            if (!(msg instanceof HttpContent)) {
+                return false;
+            }
+        }
+        if (!(msg instanceof HttpContent) || body == null) {
+            // file regions, chunked inputs and anything else we do not understand are not cached
+            discard();
+            return true;
+        }
+        ByteBuf content = ((HttpContent) msg).content();
+        if (content.isReadable()) {
+            if (body.readableBytes() + content.readableBytes() > maxBytes) {
+                discard();
+                return true;
+            }
+            body.addComponent(true, content.retainedDuplicate());
+        }
+        if (msg instanceof LastHttpContent) {
+            CompositeByteBuf captured = body;
+            body = null;
+            onComplete.accept(response, captured);
+            return true;
+        }
+        return false;
+    }
+
+    private void discard() {
+        if (body != null) {
+            body.release();
+            body = null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.client;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.exec.ExecController;
+import ratpack.http.client.HttpClient;
+import ratpack.server.RatpackServer;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.Optional;
+
+/**
+ * Builds the pooled Ratpack {@link HttpClient} shared by handlers and Micronaut beans.
+ *
+ * <p>The client is only published when {@code ratpack.http-client.enabled} is set, and then takes precedence over
+ * the default client in the Ratpack registry. It runs on the event loops of the Ratpack server, so calls made from
+ * a handler continue on the same thread without a hop. The event loops only exist once the server has started;
+ * beans created before then should inject a {@link Provider} of the client and resolve it on first use.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Factory
+public class RatpackHttpClientFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RatpackHttpClientFactory.class);
+
+    private final RatpackHttpClientProperties properties;
+    private final Provider<RatpackServer> server;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The client configuration
+     * @param server     The Ratpack server, whose event loops the client uses once started
+     */
+    public RatpackHttpClientFactory(RatpackHttpClientProperties properties, Provider<RatpackServer> server) {
+        this.properties = properties;
+        this.server = server;
+    }
+
+    /**
+     * @return the {@link HttpClient}
+     * @throws Exception if the client cannot be built
+     */
+    @Bean(preDestroy = "close")
+    @Singleton
+    @Requires(property = RatpackHttpClientProperties.ENABLED, value = StringUtils.TRUE)
+    protected HttpClient httpClient() throws Exception {
+        Optional<ExecController> execController = execController();
+        return HttpClient.of(spec -> {
+            spec.poolSize(properties.getPoolSize())
+                    .poolQueueSize(properties.getPoolQueueSize())
+                    .idleTimeout(properties.getIdleTimeout())
+                    .connectTimeout(properties.getConnectTimeout())
+                    .readTimeout(properties.getReadTimeout())
+                    .maxContentLength(properties.getMaxContentLength())
+                    .enableMetricsCollection(properties.isMetrics());
+            if (execController.isPresent()) {
+                spec.execController(execController.get());
+            }
+        });
+    }
+
+    private Optional<ExecController> execController() {
+        Optional<ExecController> current = ExecController.current();
+        if (current.isPresent()) {
+            return current;
+        }
+        Optional<ExecController> started = server.get().getRegistry()
+                .flatMap(registry -> registry.maybeGet(ExecController.class));
+        if (!started.isPresent() && LOG.isWarnEnabled()) {
+            LOG.warn("Ratpack HttpClient created before the Ratpack server started; it will not use the server event loops");
+        }
+        return started;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+import ratpack.http.client.HttpClient;
+import ratpack.http.client.HttpClientStats;
+import ratpack.server.RatpackServer;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.function.ToLongFunction;
+
+/**
+ * Binds the connection pool usage of the Ratpack {@link HttpClient} bean to Micrometer when it is on the
+ * classpath.
+ *
+ * <p>Meters are bound at startup, before the Ratpack server runs, so the client is only resolved once the server
+ * has started; until then every gauge reads zero. Resolving it earlier would build it without the server event
+ * loops.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+@Requires(beans = HttpClient.class)
+@Requires(property = RatpackHttpClientProperties.PREFIX + ".metrics", notEquals = "false")
+public class RatpackHttpClientMeterBinder implements MeterBinder {
+
+    private final Provider<HttpClient> httpClient;
+    private final Provider<RatpackServer> server;
+
+    /**
+     * Default constructor.
+     *
+     * @param httpClient The client, resolved once the server has started
+     * @param server     The Ratpack server
+     */
+    public RatpackHttpClientMeterBinder(Provider<HttpClient> httpClient, Provider<RatpackServer> server) {
+        this.httpClient = httpClient;
+        this.server = server;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ratpack.http-client.connections.active", this,
+                b -> b.stat(HttpClientStats::getTotalActiveConnectionCount))
+                .description("Pooled connections in use")
+                .register(registry);
+        Gauge.builder("ratpack.http-client.connections.idle", this,
+                b -> b.stat(HttpClientStats::getTotalIdleConnectionCount))
+                .description("Pooled connections available for reuse")
+                .register(registry);
+        Gauge.builder("ratpack.http-client.connections.total", this,
+                b -> b.stat(HttpClientStats::getTotalConnectionCount))
+                .description("Pooled connections open")
+                .register(registry);
+    }
+
+    private double stat(ToLongFunction<HttpClientStats> stat) {
+        if (!server.get().isRunning()) {
+            return 0;
+        }
+        return stat.applyAsLong(httpClient.get().getHttpClientStats());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.client;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import ratpack.server.ServerConfig;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the Ratpack {@link ratpack.http.client.HttpClient} bean.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(RatpackHttpClientProperties.PREFIX)
+public class RatpackHttpClientProperties {
+
+    public static final String PREFIX = "ratpack.http-client";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private int poolSize = 64;
+    private int poolQueueSize = Integer.MAX_VALUE;
+    private Duration idleTimeout = Duration.ofSeconds(60);
+    private Duration connectTimeout = Duration.ofSeconds(30);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private int maxContentLength = ServerConfig.DEFAULT_MAX_CONTENT_LENGTH;
+    private boolean metrics = true;
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the poolSize, the most pooled connections per host. Zero disables pooling and keep-alive.
+     *
+     * @return the poolSize
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Sets the poolSize.
+     *
+     * @param poolSize the poolSize
+     */
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Gets the poolQueueSize, the most requests per host waiting for a pooled connection.
+     *
+     * @return the poolQueueSize
+     */
+    public int getPoolQueueSize() {
+        return poolQueueSize;
+    }
+
+    /**
+     * Sets the poolQueueSize.
+     *
+     * @param poolQueueSize the poolQueueSize
+     */
+    public void setPoolQueueSize(int poolQueueSize) {
+        this.poolQueueSize = poolQueueSize;
+    }
+
+    /**
+     * Gets the idleTimeout, how long a pooled connection may stay idle before it is closed.
+     *
+     * @return the idleTimeout
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the idleTimeout.
+     *
+     * @param idleTimeout the idleTimeout
+     */
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Gets the connectTimeout.
+     *
+     * @return the connectTimeout
+     */
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets the connectTimeout.
+     *
+     * @param connectTimeout the connectTimeout
+     */
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Gets the readTimeout.
+     *
+     * @return the readTimeout
+     */
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Sets the readTimeout.
+     *
+     * @param readTimeout the readTimeout
+     */
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Gets the maxContentLength, the largest response body that is buffered.
+     *
+     * @return the maxContentLength
+     */
+    public int getMaxContentLength() {
+        return maxContentLength;
+    }
+
+    /**
+     * Sets the maxContentLength.
+     *
+     * @param maxContentLength the maxContentLength
+     */
+    public void setMaxContentLength(int maxContentLength) {
+        this.maxContentLength = maxContentLength;
+    }
+
+    /**
+     * Gets the metrics, whether the client tracks pool usage.
+     *
+     * @return the metrics
+     */
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics.
+     *
+     * @param metrics the metrics
+     */
+    public void setMetrics(boolean metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.coalesce;
+
+import ratpack.exec.Downstream;
+import ratpack.exec.Execution;
+import ratpack.exec.Promise;
+import ratpack.exec.Result;
+import ratpack.func.Factory;
+import ratpack.handling.Context;
+
+import javax.inject.Singleton;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets a single execution per key run at a time, handing its result to every execution that asks for the same
+ * key while it is in flight.
+ *
+ * <p>Waiting executions are resumed on their own event loops once the leading execution completes. Errors are
+ * shared the same way as values, and nothing is remembered once the flight completes. Values are shared between
+ * executions, so they should be immutable.</p>
+ *
+ * <p>If the leading promise completes without a value, for instance through {@code route} or {@code onNull}, or
+ * the leading execution ends before its promise yields, the key is forgotten and the waiting executions fail with
+ * an {@link IllegalStateException}.</p>
+ *
+ * <p>The coalescer is a Micronaut bean and therefore available from the Ratpack registry:</p>
+ *
+ * <pre>
+ * chain.get("products", ctx -&gt; ctx.get(RequestCoalescer.class)
+ *     .coalesce(ctx, () -&gt; productService.findAll())
+ *     .then(ctx::render));
+ * </pre>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+public class RequestCoalescer {
+
+    private final ConcurrentMap<Object, Flight<?>> flights = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Coalesces work keyed by the method and URI of the current request.
+     *
+     * @param ctx  The request context
+     * @param work Creates the promise for the leading execution
+     * @param <T>  The type of the value
+     * @return a promise for the shared value
+     */
+    public <T> Promise<T> coalesce(Context ctx, Factory<? extends Promise<T>> work) {
+        return coalesce(ctx.getRequest().getMethod().getName() + ' ' + ctx.getRequest().getRawUri(), work);
+    }
+
+    /**
+     * Coalesces work by key.
+     *
+     * @param key  The key identifying identical work
+     * @param work Creates the promise for the leading execution
+     * @param <T>  The type of the value
+     * @return a promise for the shared value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Promise<T> coalesce(Object key, Factory<? extends Promise<T>> work) {
+        return Promise.flatten(() -> {
+            Flight<T> flight = new Flight<>();
+            Flight<T> existing = (Flight<T>) flights.putIfAbsent(key, flight);
+            if (existing != null) {
+                coalesced.increment();
+                return existing.join();
+            }
+            Promise<T> promise;
+            try {
+                promise = work.create();
+            } catch (Exception e) {
+                land(key, flight, Result.error(e));
+                throw e;
+            }
+            Execution.current().onComplete(() -> land(key, flight, Result.error(abandoned(key))));
+            return promise.<T>transform(upstream -> downstream -> upstream.connect(new Downstream<T>() {
+                @Override
+                public void success(T value) {
+                    land(key, flight, Result.success(value));
+                    downstream.success(value);
+                }
+
+                @Override
+                public void error(Throwable throwable) {
+                    land(key, flight, Result.error(throwable));
+                    downstream.error(throwable);
+                }
+
+                @Override
+                public void complete() {
+                    land(key, flight, Result.error(abandoned(key)));
+                    downstream.complete();
+                }
+            }));
+        });
+    }
+
+    /**
+     * Gets the number of executions that waited for another execution instead of running their own work.
+     *
+     * @return the coalesced count
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Gets the number of keys with work in flight.
+     *
+     * @return the in flight count
+     */
+    public int getInFlight() {
+        return flights.size();
+    }
+
+    private <T> void land(Object key, Flight<T> flight, Result<T> result) {
+        if (flights.remove(key, flight)) {
+            flight.complete(result);
+        }
+    }
+
+    private static IllegalStateException abandoned(Object key) {
+        return new IllegalStateException("Coalesced work for " + key + " ended without a value");
+    }
+
+    /**
+     * The waiters for a single key.
+     *
+     * @param <T> The type of the value
+     */
+    private static final class Flight<T> {
+        private final Queue<Downstream<? super T>> waiters = new ConcurrentLinkedQueue<>();
+        private volatile Result<T> result;
+
+        Promise<T> join() {
+            return Promise.async(downstream -> {
+                waiters.add(downstream);
+                Result<T> completed = result;
+                if (completed != null) {
+                    drain(completed);
+                }
+            });
+        }
+
+        void complete(Result<T> completed) {
+            result = completed;
+            drain(completed);
+        }
+
+        private void drain(Result<T> completed) {
+            Downstream<? super T> downstream = waiters.poll();
+            while (downstream != null) {
+                downstream.accept(completed);
+                downstream = waiters.poll();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.coalesce;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+
+/**
+ * Publishes the {@link RequestCoalescer} statistics to Micrometer.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+public class RequestCoalescerMeterBinder implements MeterBinder {
+
+    private final RequestCoalescer coalescer;
+
+    /**
+     * Default constructor.
+     *
+     * @param coalescer The coalescer
+     */
+    public RequestCoalescerMeterBinder(RequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ratpack.server.coalesced", coalescer, RequestCoalescer::getCoalesced)
+                .description("Executions that waited for an identical in-flight execution")
+                .register(registry);
+        Gauge.builder("ratpack.server.coalesced.in-flight", coalescer, RequestCoalescer::getInFlight)
+                .description("Keys with coalesced work in flight")
+                .register(registry);
+    }
+}
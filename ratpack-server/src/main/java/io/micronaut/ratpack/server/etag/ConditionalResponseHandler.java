@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.etag;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AsciiString;
+import io.netty.util.ReferenceCountUtil;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Outbound handler added to the channel pipeline for the duration of a single response. It holds back the
+ * response while hashing the body as it is written, then either releases it with an {@code ETag} header or
+ * replaces it with a {@code 304 Not Modified} when the request validators match.
+ *
+ * <p>Only {@code 200} responses with a known length up to the configured buffer size are held back; anything
+ * else passes straight through.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class ConditionalResponseHandler extends ChannelOutboundHandlerAdapter {
+
+    private static final AsciiString[] NOT_MODIFIED_HEADERS = {
+        HttpHeaderNames.ETAG,
+        HttpHeaderNames.CACHE_CONTROL,
+        HttpHeaderNames.CONTENT_LOCATION,
+        HttpHeaderNames.DATE,
+        HttpHeaderNames.EXPIRES,
+        HttpHeaderNames.LAST_MODIFIED,
+        HttpHeaderNames.VARY,
+        HttpHeaderNames.CONNECTION
+    };
+
+    private final String ifNoneMatch;
+    private final String ifModifiedSince;
+    private final boolean weak;
+    private final int maxBufferSize;
+    private final XxHash64 hash = new XxHash64(0);
+    private final List<Object> held = new ArrayList<>();
+    private final List<ChannelPromise> promises = new ArrayList<>();
+    private HttpResponse response;
+    private boolean passThrough;
+
+    /**
+     * @param ifNoneMatch     The request If-None-Match header
+     * @param ifModifiedSince The request If-Modified-Since header
+     * @param weak            Whether generated ETags are weak
+     * @param maxBufferSize   The largest body to hold back
+     */
+    ConditionalResponseHandler(String ifNoneMatch, String ifModifiedSince, boolean weak, int maxBufferSize) {
+        this.ifNoneMatch = ifNoneMatch;
+        this.ifModifiedSince = ifModifiedSince;
+        this.weak = weak;
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (passThrough) {
+            ctx.write(msg, promise);
+            if (msg instanceof LastHttpContent) {
+                ctx.pipeline().remove(this);
+            }
+            return;
+        }
+        if (response == null) {
+            if (!(msg instanceof HttpResponse) || !eligible((HttpResponse) msg)) {
+                ctx.write(msg, promise);
+                ctx.pipeline().remove(this);
+                return;
+            }
+            response = (HttpResponse) msg;
+        } else if (!(msg instanceof HttpContent)) {
+            release(ctx, msg, promise);
+            return;
+        }
+        held.add(msg);
+        promises.add(promise);
+        if (msg instanceof HttpContent) {
+            ByteBuf content = ((HttpContent) msg).content();
+            hash.update(content);
+        }
+        if (msg instanceof LastHttpContent) {
+            finish(ctx);
+            ctx.pipeline().remove(this);
+        }
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        for (Object msg : held) {
+            ReferenceCountUtil.release(msg);
+        }
+        for (ChannelPromise promise : promises) {
+            promise.tryFailure(new ClosedChannelException());
+        }
+        held.clear();
+        promises.clear();
+    }
+
+    private boolean eligible(HttpResponse msg) {
+        if (msg.status().code() != HttpResponseStatus.OK.code()) {
+            return false;
+        }
+        if (msg instanceof FullHttpResponse) {
+            return ((FullHttpResponse) msg).content().readableBytes() <= maxBufferSize;
+        }
+        return HttpUtil.isContentLengthSet(msg) && HttpUtil.getContentLength(msg) <= maxBufferSize;
+    }
+
+    private void release(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        passThrough = true;
+        replay(ctx);
+        ctx.write(msg, promise);
+    }
+
+    private void replay(ChannelHandlerContext ctx) {
+        for (int i = 0; i < held.size(); i++) {
+            ctx.write(held.get(i), promises.get(i));
+        }
+        held.clear();
+        promises.clear();
+    }
+
+    private void finish(ChannelHandlerContext ctx) {
+        HttpHeaders headers = response.headers();
+        String etag = headers.get(HttpHeaderNames.ETAG);
+        if (etag == null) {
+            etag = (weak ? "W/\"" : "\"") + Long.toHexString(hash.digest()) + '"';
+            headers.set(HttpHeaderNames.ETAG, etag);
+        }
+        if (!notModified(etag, headers)) {
+            replay(ctx);
+            return;
+        }
+        FullHttpResponse notModified = new DefaultFullHttpResponse(response.protocolVersion(),
+                HttpResponseStatus.NOT_MODIFIED);
+        for (AsciiString name : NOT_MODIFIED_HEADERS) {
+            List<String> values = headers.getAll(name);
+            if (!values.isEmpty()) {
+                notModified.headers().set(name, values);
+            }
+        }
+        for (Object msg : held) {
+            ReferenceCountUtil.release(msg);
+        }
+        held.clear();
+        List<ChannelPromise> waiting = new ArrayList<>(promises);
+        promises.clear();
+        ctx.write(notModified).addListener(future -> {
+            for (ChannelPromise promise : waiting) {
+                if (future.isSuccess()) {
+                    promise.trySuccess();
+                } else {
+                    promise.tryFailure(future.cause());
+                }
+            }
+        });
+    }
+
+    private boolean notModified(String etag, HttpHeaders headers) {
+        if (ifNoneMatch != null) {
+            String opaque = opaque(etag);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String trimmed = candidate.trim();
+                if (trimmed.equals("*") || opaque(trimmed).equals(opaque)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (ifModifiedSince != null) {
+            Date since = DateFormatter.parseHttpDate(ifModifiedSince);
+            String lastModifiedHeader = headers.get(HttpHeaderNames.LAST_MODIFIED);
+            Date lastModified = lastModifiedHeader != null ? DateFormatter.parseHttpDate(lastModifiedHeader) : null;
+            return since != null && lastModified != null && !lastModified.after(since);
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
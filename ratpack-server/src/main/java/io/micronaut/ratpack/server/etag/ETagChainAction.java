@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.etag;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.core.util.StringUtils;
+import ratpack.func.Action;
+import ratpack.handling.Chain;
+
+import javax.inject.Singleton;
+
+/**
+ * Installs the {@link ETagHandler} ahead of the response cache and the user handlers, so that cached
+ * responses are also answered conditionally.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = ETagProperties.ENABLED, value = StringUtils.TRUE)
+public class ETagChainAction implements Action<Chain>, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 400;
+
+    private final ETagHandler handler;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The ETag configuration
+     */
+    public ETagChainAction(ETagProperties properties) {
+        this.handler = new ETagHandler(properties);
+    }
+
+    @Override
+    public void execute(Chain chain) {
+        chain.all(handler);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.etag;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.http.Headers;
+
+/**
+ * Adds an ETag to dynamic {@code GET} responses and answers matching conditional requests with a
+ * {@code 304 Not Modified}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class ETagHandler implements Handler {
+
+    private final boolean weak;
+    private final int maxBufferSize;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The ETag configuration
+     */
+    public ETagHandler(ETagProperties properties) {
+        this.weak = properties.isWeak();
+        this.maxBufferSize = properties.getMaxBufferSize();
+    }
+
+    @Override
+    public void handle(Context ctx) {
+        if (ctx.getRequest().getMethod().isGet()) {
+            Headers headers = ctx.getRequest().getHeaders();
+            ctx.getDirectChannelAccess().getChannel().pipeline().addLast(new ConditionalResponseHandler(
+                    headers.get(HttpHeaderNames.IF_NONE_MATCH),
+                    headers.get(HttpHeaderNames.IF_MODIFIED_SINCE),
+                    weak,
+                    maxBufferSize
+            ));
+        }
+        ctx.next();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.etag;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+/**
+ * Configuration for automatic ETag generation and conditional GET handling.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(ETagProperties.PREFIX)
+public class ETagProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".etag";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private boolean weak = false;
+    private int maxBufferSize = 1024 * 1024;
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the weak, whether generated ETags are marked as weak validators.
+     *
+     * @return the weak
+     */
+    public boolean isWeak() {
+        return weak;
+    }
+
+    /**
+     * Sets the weak.
+     *
+     * @param weak the weak
+     */
+    public void setWeak(boolean weak) {
+        this.weak = weak;
+    }
+
+    /**
+     * Gets the maxBufferSize, the largest body that is held back to compute an ETag.
+     *
+     * @return the maxBufferSize
+     */
+    public int getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
+    /**
+     * Sets the maxBufferSize.
+     *
+     * @param maxBufferSize the maxBufferSize
+     */
+    public void setMaxBufferSize(int maxBufferSize) {
+        this.maxBufferSize = maxBufferSize;
+    }
+}
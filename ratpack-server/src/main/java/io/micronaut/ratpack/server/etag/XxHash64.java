@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.etag;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Streaming implementation of the 64 bit xxHash algorithm over {@link ByteBuf} contents.
+ *
+ * <p>Buffers are read in place without changing their indexes, so the same buffers can be written to the
+ * channel afterwards.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class XxHash64 {
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE = 32;
+
+    private final long seed;
+    private final byte[] pending = new byte[STRIPE];
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+    private long length;
+    private int pendingLength;
+
+    /**
+     * @param seed The seed
+     */
+    XxHash64(long seed) {
+        this.seed = seed;
+        this.v1 = seed + P1 + P2;
+        this.v2 = seed + P2;
+        this.v3 = seed;
+        this.v4 = seed - P1;
+    }
+
+    /**
+     * Adds the readable bytes of a buffer to the hash.
+     *
+     * @param buf The buffer
+     */
+    void update(ByteBuf buf) {
+        int index = buf.readerIndex();
+        int count = buf.readableBytes();
+        int end = index + count;
+        length += count;
+        if (pendingLength + count < STRIPE) {
+            buf.getBytes(index, pending, pendingLength, count);
+            pendingLength += count;
+            return;
+        }
+        if (pendingLength > 0) {
+            int fill = STRIPE - pendingLength;
+            buf.getBytes(index, pending, pendingLength, fill);
+            v1 = round(v1, longLE(pending, 0));
+            v2 = round(v2, longLE(pending, 8));
+            v3 = round(v3, longLE(pending, 16));
+            v4 = round(v4, longLE(pending, 24));
+            index += fill;
+            pendingLength = 0;
+        }
+        while (index + STRIPE <= end) {
+            v1 = round(v1, buf.getLongLE(index));
+            v2 = round(v2, buf.getLongLE(index + 8));
+            v3 = round(v3, buf.getLongLE(index + 16));
+            v4 = round(v4, buf.getLongLE(index + 24));
+            index += STRIPE;
+        }
+        if (index < end) {
+            pendingLength = end - index;
+            buf.getBytes(index, pending, 0, pendingLength);
+        }
+    }
+
+    /**
+     * @return The hash of every byte added so far
+     */
+    long digest() {
+        long hash;
+        if (length >= STRIPE) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + P5;
+        }
+        hash += length;
+        int i = 0;
+        for (; i + 8 <= pendingLength; i += 8) {
+            hash ^= round(0, longLE(pending, i));
+            hash = Long.rotateLeft(hash, 27) * P1 + P4;
+        }
+        if (i + 4 <= pendingLength) {
+            hash ^= (intLE(pending, i) & 0xFFFFFFFFL) * P1;
+            hash = Long.rotateLeft(hash, 23) * P2 + P3;
+            i += 4;
+        }
+        for (; i < pendingLength; i++) {
+            hash ^= (pending[i] & 0xFF) * P5;
+            hash = Long.rotateLeft(hash, 11) * P1;
+        }
+        hash ^= hash >>> 33;
+        hash *= P2;
+        hash ^= hash >>> 29;
+        hash *= P3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static long round(long acc, long input) {
+        return Long.rotateLeft(acc + input * P2, 31) * P1;
+    }
+
+    private static long mergeRound(long acc, long value) {
+        return (acc ^ round(0, value)) * P1 + P4;
+    }
+
+    private static long longLE(byte[] bytes, int offset) {
+        return (intLE(bytes, offset) & 0xFFFFFFFFL) | ((long) intLE(bytes, offset + 4) << 32);
+    }
+
+    private static int intLE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF)
+                | (bytes[offset + 1] & 0xFF) << 8
+                | (bytes[offset + 2] & 0xFF) << 16
+                | (bytes[offset + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.internal;
+
+import io.micronaut.ratpack.server.RatpackChannelInitializer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import ratpack.func.Action;
+import ratpack.impose.Impositions;
+import ratpack.server.RatpackServerSpec;
+import ratpack.server.ServerConfig;
+import ratpack.server.internal.DefaultRatpackServer;
+
+import java.util.List;
+
+/**
+ * Ratpack server that runs the {@link RatpackChannelInitializer} beans on every accepted connection.
+ *
+ * <p>Ratpack builds its server bootstrap and connection pipeline internally and offers no hook into either. This
+ * server hands Ratpack a stand-in for its request adapter; when Ratpack adds the stand-in to a new connection's
+ * pipeline, the stand-in puts the real adapter in its place, under the same name, and runs the initializers. This
+ * happens while the connection is being registered, before it becomes active or reads any bytes.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class ChannelInitializingRatpackServer extends DefaultRatpackServer {
+
+    private final List<RatpackChannelInitializer> initializers;
+
+    /**
+     * Default constructor.
+     *
+     * @param definition   Defines the server
+     * @param impositions  The impositions in effect
+     * @param initializers The connection initializers, in order
+     * @throws Exception if the server cannot be defined
+     */
+    public ChannelInitializingRatpackServer(Action<? super RatpackServerSpec> definition,
+                                            Impositions impositions,
+                                            List<RatpackChannelInitializer> initializers) throws Exception {
+        super(definition, impositions);
+        this.initializers = initializers;
+    }
+
+    @Override
+    protected Channel buildChannel(ServerConfig serverConfig, ChannelHandler handlerAdapter)
+            throws InterruptedException {
+        return super.buildChannel(serverConfig, new Initializer(handlerAdapter, initializers));
+    }
+
+    /**
+     * Replaces itself with the request adapter and runs the initializers when added to a connection's pipeline.
+     */
+    @ChannelHandler.Sharable
+    private static final class Initializer extends ChannelInboundHandlerAdapter {
+        private final ChannelHandler handlerAdapter;
+        private final List<RatpackChannelInitializer> initializers;
+
+        Initializer(ChannelHandler handlerAdapter, List<RatpackChannelInitializer> initializers) {
+            this.handlerAdapter = handlerAdapter;
+            this.initializers = initializers;
+        }
+
+        @Override
+        public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+            ctx.pipeline().replace(this, ctx.name(), handlerAdapter);
+            for (RatpackChannelInitializer initializer : initializers) {
+                initializer.initChannel(ctx.channel());
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.internal;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.ratpack.server.RatpackServerCustomizer;
+import io.micronaut.ratpack.server.profile.RegistryProfiler;
+import ratpack.func.Function;
+import ratpack.registry.Registry;
+import ratpack.util.Exceptions;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Builds the Ratpack user registry from the {@link RatpackServerCustomizer} registries joined with the Micronaut
+ * beans, profiled by the {@link RegistryProfiler} when it is enabled.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class JoinedRegistryFunction implements Function<Registry, Registry> {
+
+    private final ApplicationContext context;
+    private final List<RatpackServerCustomizer> customizers;
+
+    /**
+     * Default constructor.
+     *
+     * @param context     The application context
+     * @param customizers The server customizers
+     */
+    public JoinedRegistryFunction(ApplicationContext context, List<RatpackServerCustomizer> customizers) {
+        this.context = context;
+        this.customizers = customizers;
+    }
+
+    @Override
+    public Registry apply(Registry baseRegistry) {
+        Registry updated = customizers.stream()
+                .map(customizer -> Exceptions.uncheck(() -> customizer.getRegistry().apply(baseRegistry)))
+                .reduce(Registry::join).orElse(Registry.empty());
+        Registry micronaut = Registry.backedBy(new MicronautRegistryBacking(context));
+        Optional<RegistryProfiler> profiler = context.findBean(RegistryProfiler.class);
+        return profiler.isPresent() ? profiler.get().profile(updated, micronaut) : updated.join(micronaut);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.json;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+/**
+ * Configuration for rendering and parsing Ratpack JSON with the Micronaut object mapper.
+ *
+ * <p>Disabled by default. Once enabled, the Micronaut renderer and parsers take precedence over the ones Ratpack
+ * registers for {@code Jackson.json} and {@code Jackson.fromJson}, so the Micronaut {@code jackson.*} settings
+ * apply to Ratpack JSON as well.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(JsonProperties.PREFIX)
+public class JsonProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".json";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.reflect.TypeToken;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import ratpack.handling.Context;
+import ratpack.http.MediaType;
+import ratpack.http.TypedData;
+import ratpack.parse.NoOptParserSupport;
+
+import javax.inject.Singleton;
+
+/**
+ * Parses {@code application/json} requests for {@code ctx.parse(Type.class)} with the Micronaut
+ * {@link ObjectMapper}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(beans = ObjectMapper.class)
+@Requires(property = JsonProperties.ENABLED, value = StringUtils.TRUE)
+public class MicronautJsonNoOptParser extends NoOptParserSupport {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Default constructor.
+     *
+     * @param objectMapper The Micronaut object mapper
+     */
+    public MicronautJsonNoOptParser(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public <T> T parse(Context context, TypedData requestBody, TypeToken<T> type) throws Exception {
+        return MicronautJsonParser.read(objectMapper, requestBody, type);
+    }
+}
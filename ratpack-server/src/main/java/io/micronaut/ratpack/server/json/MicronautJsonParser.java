@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.reflect.TypeToken;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.netty.buffer.ByteBufInputStream;
+import ratpack.handling.Context;
+import ratpack.http.TypedData;
+import ratpack.jackson.JsonParseOpts;
+import ratpack.parse.Parse;
+import ratpack.parse.ParserSupport;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parses {@link ratpack.jackson.Jackson#fromJson(Class)} requests with the Micronaut {@link ObjectMapper},
+ * reading straight from the request body buffer.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(beans = ObjectMapper.class)
+@Requires(property = JsonProperties.ENABLED, value = StringUtils.TRUE)
+public class MicronautJsonParser extends ParserSupport<JsonParseOpts> {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Default constructor.
+     *
+     * @param objectMapper The Micronaut object mapper
+     */
+    public MicronautJsonParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public <T> T parse(Context context, TypedData body, Parse<T, JsonParseOpts> parse) throws Exception {
+        ObjectMapper mapper = parse.getOpts().flatMap(JsonParseOpts::getObjectMapper).orElse(objectMapper);
+        return read(mapper, body, parse.getType());
+    }
+
+    /**
+     * Reads a value from the request body without copying it to an intermediate array.
+     *
+     * @param mapper The object mapper
+     * @param body   The request body
+     * @param type   The type to read
+     * @param <T>    The type to read
+     * @return the value
+     * @throws IOException if the body cannot be read
+     */
+    static <T> T read(ObjectMapper mapper, TypedData body, TypeToken<T> type) throws IOException {
+        try (JsonParser parser = mapper.getFactory()
+                .createParser((InputStream) new ByteBufInputStream(body.getBuffer().duplicate()))) {
+            return mapper.readValue(parser, mapper.getTypeFactory().constructType(type.getType()));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import ratpack.handling.Context;
+import ratpack.http.MediaType;
+import ratpack.jackson.JsonRender;
+import ratpack.render.RendererSupport;
+
+import javax.inject.Singleton;
+import java.io.OutputStream;
+
+/**
+ * Renders {@link ratpack.jackson.Jackson#json(Object)} results with the Micronaut {@link ObjectMapper},
+ * generating straight into a pooled buffer from the channel allocator.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(beans = ObjectMapper.class)
+@Requires(property = JsonProperties.ENABLED, value = StringUtils.TRUE)
+public class MicronautJsonRenderer extends RendererSupport<JsonRender> {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Default constructor.
+     *
+     * @param objectMapper The Micronaut object mapper
+     */
+    public MicronautJsonRenderer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void render(Context ctx, JsonRender render) throws Exception {
+        ObjectWriter writer = render.getObjectWriter() != null ? render.getObjectWriter() : objectMapper.writer();
+        if (render.getViewClass() != null) {
+            writer = writer.withView(render.getViewClass());
+        }
+        ByteBuf buffer = ctx.getDirectChannelAccess().getChannel().alloc().buffer();
+        try {
+            // the writer creates its own generator, so the features and views of a supplied writer apply
+            writer.writeValue((OutputStream) new ByteBufOutputStream(buffer), render.getObject());
+        } catch (Exception e) {
+            buffer.release();
+            throw e;
+        }
+        ctx.getResponse().contentTypeIfNotSet(MediaType.APPLICATION_JSON).send(buffer);
+    }
+}
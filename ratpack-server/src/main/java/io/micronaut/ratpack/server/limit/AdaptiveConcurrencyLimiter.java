@@ -0,0 +1,178 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.limit;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Additive increase / multiplicative decrease (AIMD) concurrency limiter.
+ *
+ * <p>The limit grows by one whenever a request completes quickly while at least half of the limit is in use,
+ * and is multiplied by the backoff ratio whenever a request fails, exceeds the latency threshold or completes
+ * while the event loops are lagging.</p>
+ *
+ * <p>The bounds and thresholds can be replaced while the limiter is in use with
+ * {@link #configure(ConcurrencyLimitProperties)}; they are held in one immutable object, so each decision sees a
+ * consistent set.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = ConcurrencyLimitProperties.ENABLED, value = StringUtils.TRUE)
+public class AdaptiveConcurrencyLimiter {
+
+    private final LongSupplier eventLoopLag;
+    private final AtomicInteger limit;
+    private volatile Settings settings;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The concurrency limit configuration
+     * @param lagMonitor The event loop lag monitor
+     */
+    @Inject
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, EventLoopLagMonitor lagMonitor) {
+        this(properties, lagMonitor::getMaxLagNanos);
+    }
+
+    /**
+     * Constructor taking an arbitrary source of event loop lag.
+     *
+     * @param properties   The concurrency limit configuration
+     * @param eventLoopLag Supplies the current event loop lag in nanoseconds
+     */
+    AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, LongSupplier eventLoopLag) {
+        this.settings = new Settings(properties);
+        this.eventLoopLag = eventLoopLag;
+        this.limit = new AtomicInteger(settings.clamp(properties.getInitialLimit()));
+    }
+
+    /**
+     * Replaces the bounds, backoff ratio and thresholds, moving the current limit within the new bounds. The
+     * initial limit and the event loop lag probe interval are not changed.
+     *
+     * @param properties The concurrency limit configuration
+     */
+    public void configure(ConcurrencyLimitProperties properties) {
+        Settings updated = new Settings(properties);
+        settings = updated;
+        limit.updateAndGet(updated::clamp);
+    }
+
+    /**
+     * Attempts to admit a request.
+     *
+     * @return true if the request may proceed, in which case {@link #release(long, boolean)} must be called
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and adjusts the limit.
+     *
+     * @param latencyNanos How long the request took
+     * @param failed       Whether the request failed because of the server
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        Settings in = settings;
+        if (failed || latencyNanos > in.latencyThresholdNanos || eventLoopLag.getAsLong() > in.lagThresholdNanos) {
+            limit.updateAndGet(l -> Math.max(in.minLimit, (int) (l * in.backoffRatio)));
+        } else if (current * 2 >= limit.get()) {
+            limit.updateAndGet(l -> Math.min(in.maxLimit, l + 1));
+        }
+    }
+
+    /**
+     * Gets the current limit.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return limit.get();
+    }
+
+    /**
+     * Gets the number of admitted requests that have not completed.
+     *
+     * @return the in flight count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the number of rejected requests.
+     *
+     * @return the rejected count
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the current event loop lag.
+     *
+     * @return the lag in nanoseconds
+     */
+    public long getEventLoopLagNanos() {
+        return eventLoopLag.getAsLong();
+    }
+
+    /**
+     * The bounds, backoff ratio and thresholds in effect.
+     */
+    private static final class Settings {
+        private final int minLimit;
+        private final int maxLimit;
+        private final double backoffRatio;
+        private final long latencyThresholdNanos;
+        private final long lagThresholdNanos;
+
+        Settings(ConcurrencyLimitProperties properties) {
+            this.minLimit = Math.max(1, properties.getMinLimit());
+            this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+            this.backoffRatio = properties.getBackoffRatio();
+            this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+            this.lagThresholdNanos = properties.getEventLoopLagThreshold().toNanos();
+        }
+
+        int clamp(int limit) {
+            return Math.min(maxLimit, Math.max(minLimit, limit));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.limit;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.core.util.StringUtils;
+import ratpack.func.Action;
+import ratpack.handling.Chain;
+
+import javax.inject.Singleton;
+
+/**
+ * Installs the {@link ConcurrencyLimitHandler} ahead of every handler but the access log, so overload is shed
+ * before any other work is done.
+ *
+ * <p>The connection limit is enforced before the chain, as connections are accepted. The access log only
+ * registers a completion callback and stays first so that shed requests are logged; the server refresh,
+ * tracing, request timeout and every later handler run only for admitted requests.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = ConcurrencyLimitProperties.ENABLED, value = StringUtils.TRUE)
+public class ConcurrencyLimitChainAction implements Action<Chain>, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * Default constructor.
+     *
+     * @param limiter The limiter
+     */
+    public ConcurrencyLimitChainAction(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void execute(Chain chain) {
+        chain.all(new ConcurrencyLimitHandler(limiter));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.limit;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+
+/**
+ * Handler that sheds requests with a 503 once the {@link AdaptiveConcurrencyLimiter} limit is reached.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class ConcurrencyLimitHandler implements Handler {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * Default constructor.
+     *
+     * @param limiter The limiter
+     */
+    public ConcurrencyLimitHandler(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void handle(Context ctx) {
+        if (!limiter.tryAcquire()) {
+            ctx.getResponse().status(HttpResponseStatus.SERVICE_UNAVAILABLE.code()).send();
+            return;
+        }
+        long start = System.nanoTime();
+        ctx.onClose(outcome -> limiter.release(
+                System.nanoTime() - start,
+                outcome.getResponse().getStatus().getCode() >= HttpResponseStatus.INTERNAL_SERVER_ERROR.code()
+        ));
+        ctx.next();
+    }
+}
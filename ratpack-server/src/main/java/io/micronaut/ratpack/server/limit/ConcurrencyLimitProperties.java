@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.limit;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the adaptive concurrency limiter.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(ConcurrencyLimitProperties.PREFIX)
+public class ConcurrencyLimitProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".concurrency-limit";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private int initialLimit = 100;
+    private int minLimit = 10;
+    private int maxLimit = 1000;
+    private double backoffRatio = 0.9;
+    private Duration latencyThreshold = Duration.ofSeconds(1);
+    private Duration eventLoopLagThreshold = Duration.ofMillis(50);
+    private Duration eventLoopLagInterval = Duration.ofMillis(100);
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the initialLimit.
+     *
+     * @return the initialLimit
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * Sets the initialLimit.
+     *
+     * @param initialLimit the initialLimit
+     */
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    /**
+     * Gets the minLimit.
+     *
+     * @return the minLimit
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * Sets the minLimit.
+     *
+     * @param minLimit the minLimit
+     */
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * Gets the maxLimit.
+     *
+     * @return the maxLimit
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Sets the maxLimit.
+     *
+     * @param maxLimit the maxLimit
+     */
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Gets the backoffRatio.
+     *
+     * @return the backoffRatio
+     */
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * Sets the backoffRatio.
+     *
+     * @param backoffRatio the backoffRatio
+     */
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Gets the latencyThreshold.
+     *
+     * @return the latencyThreshold
+     */
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    /**
+     * Sets the latencyThreshold.
+     *
+     * @param latencyThreshold the latencyThreshold
+     */
+    public void setLatencyThreshold(Duration latencyThreshold) {
+        this.latencyThreshold = latencyThreshold;
+    }
+
+    /**
+     * Gets the eventLoopLagThreshold.
+     *
+     * @return the eventLoopLagThreshold
+     */
+    public Duration getEventLoopLagThreshold() {
+        return eventLoopLagThreshold;
+    }
+
+    /**
+     * Sets the eventLoopLagThreshold.
+     *
+     * @param eventLoopLagThreshold the eventLoopLagThreshold
+     */
+    public void setEventLoopLagThreshold(Duration eventLoopLagThreshold) {
+        this.eventLoopLagThreshold = eventLoopLagThreshold;
+    }
+
+    /**
+     * Gets the eventLoopLagInterval.
+     *
+     * @return the eventLoopLagInterval
+     */
+    public Duration getEventLoopLagInterval() {
+        return eventLoopLagInterval;
+    }
+
+    /**
+     * Sets the eventLoopLagInterval.
+     *
+     * @param eventLoopLagInterval the eventLoopLagInterval
+     */
+    public void setEventLoopLagInterval(Duration eventLoopLagInterval) {
+        this.eventLoopLagInterval = eventLoopLagInterval;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.limit;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.ratpack.server.RatpackChannelInitializer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+import javax.inject.Singleton;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Admits each connection through the {@link ConnectionLimiter} as soon as it becomes active, releasing it when
+ * the connection closes.
+ *
+ * <p>The check runs at the head of the pipeline, before Ratpack starts reading, so a connection counts against
+ * the limits whether or not it ever sends a request. A rejected connection is closed at once, without reading or
+ * decoding any of its bytes.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = ConnectionLimitProperties.ENABLED, value = StringUtils.TRUE)
+public class ConnectionLimitInitializer implements RatpackChannelInitializer {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private final Admission admission;
+
+    /**
+     * Default constructor.
+     *
+     * @param limiter The limiter
+     */
+    public ConnectionLimitInitializer(ConnectionLimiter limiter) {
+        this.admission = new Admission(limiter);
+    }
+
+    @Override
+    public void initChannel(Channel channel) {
+        channel.pipeline().addFirst("connectionLimit", admission);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Admits or closes a connection when it becomes active, then leaves the pipeline.
+     */
+    @ChannelHandler.Sharable
+    private static final class Admission extends ChannelInboundHandlerAdapter {
+        private final ConnectionLimiter limiter;
+
+        Admission(ConnectionLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            Channel channel = ctx.channel();
+            InetAddress address = address(channel.remoteAddress());
+            if (!limiter.tryAcquire(address)) {
+                ctx.close();
+                return;
+            }
+            channel.closeFuture().addListener(future -> limiter.release(address));
+            ctx.fireChannelActive();
+            ctx.pipeline().remove(this);
+        }
+
+        private static InetAddress address(SocketAddress remote) {
+            return remote instanceof InetSocketAddress ? ((InetSocketAddress) remote).getAddress() : null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+
+/**
+ * Publishes the {@link ConnectionLimiter} state to Micrometer.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+@Requires(beans = ConnectionLimiter.class)
+public class ConnectionLimitMeterBinder implements MeterBinder {
+
+    private final ConnectionLimiter limiter;
+
+    /**
+     * Default constructor.
+     *
+     * @param limiter The limiter
+     */
+    public ConnectionLimitMeterBinder(ConnectionLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ratpack.server.connections.open", limiter, ConnectionLimiter::getConnections)
+                .description("Connections admitted by the connection limiter that are open")
+                .register(registry);
+        Gauge.builder("ratpack.server.connections.addresses", limiter, ConnectionLimiter::getAddresses)
+                .description("Client addresses with open connections")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.connections.rejected", limiter, ConnectionLimiter::getRejected)
+                .tag("limit", "global")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.connections.rejected", limiter, ConnectionLimiter::getRejectedPerIp)
+                .tag("limit", "ip")
+                .register(registry);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.limit;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+/**
+ * Configuration for the limits on open connections.
+ *
+ * <p>The limits apply to every connection from the moment it is accepted, whether or not it ever sends a
+ * request, so idle and slowloris-style clients count against them too.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(ConnectionLimitProperties.PREFIX)
+public class ConnectionLimitProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".connection-limit";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private int maxConnections = 10000;
+    private int maxConnectionsPerIp = 0;
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the maxConnections, the number of connections that may be open at once, or 0 for no limit.
+     *
+     * @return the maxConnections
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Sets the maxConnections.
+     *
+     * @param maxConnections the maxConnections
+     */
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Gets the maxConnectionsPerIp, the number of connections a single client address may hold open at once, or 0
+     * for no limit.
+     *
+     * @return the maxConnectionsPerIp
+     */
+    public int getMaxConnectionsPerIp() {
+        return maxConnectionsPerIp;
+    }
+
+    /**
+     * Sets the maxConnectionsPerIp.
+     *
+     * @param maxConnectionsPerIp the maxConnectionsPerIp
+     */
+    public void setMaxConnectionsPerIp(int maxConnectionsPerIp) {
+        this.maxConnectionsPerIp = maxConnectionsPerIp;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.limit;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.net.InetAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts open connections, globally and per client address, admitting a connection only while both counts are
+ * below their limits.
+ *
+ * <p>The counts are maintained with compare-and-set loops only. A per address counter is removed once it drops
+ * to zero; it is marked dead first, so a connection racing the removal retries with a fresh counter instead of
+ * counting against the removed one. Addresses are counted whatever the limits, so the limits can be replaced
+ * with {@link #configure(ConnectionLimitProperties)} while connections are open; connections already admitted
+ * are not closed when a limit is lowered.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = ConnectionLimitProperties.ENABLED, value = StringUtils.TRUE)
+public class ConnectionLimiter {
+
+    private static final int DEAD = -1;
+
+    private volatile int maxConnections;
+    private volatile int maxConnectionsPerIp;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ConcurrentMap<InetAddress, AtomicInteger> perIp = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rejectedPerIp = new LongAdder();
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The limit configuration
+     */
+    @Inject
+    public ConnectionLimiter(ConnectionLimitProperties properties) {
+        this(properties.getMaxConnections(), properties.getMaxConnectionsPerIp());
+    }
+
+    /**
+     * Constructor taking explicit limits.
+     *
+     * @param maxConnections      The global limit, or 0 for none
+     * @param maxConnectionsPerIp The per address limit, or 0 for none
+     */
+    ConnectionLimiter(int maxConnections, int maxConnectionsPerIp) {
+        setLimits(maxConnections, maxConnectionsPerIp);
+    }
+
+    /**
+     * Replaces the limits, which apply to connections admitted from now on.
+     *
+     * @param properties The limit configuration
+     */
+    public void configure(ConnectionLimitProperties properties) {
+        setLimits(properties.getMaxConnections(), properties.getMaxConnectionsPerIp());
+    }
+
+    /**
+     * Admits a connection if neither limit is reached. An admitted connection must be released exactly once.
+     *
+     * @param address The client address, or null if not known
+     * @return whether the connection was admitted
+     */
+    public boolean tryAcquire(@Nullable InetAddress address) {
+        if (!increment(connections, maxConnections)) {
+            rejected.increment();
+            return false;
+        }
+        if (address != null && !acquire(address)) {
+            connections.decrementAndGet();
+            rejectedPerIp.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Releases an admitted connection.
+     *
+     * @param address The client address it was admitted with
+     */
+    public void release(@Nullable InetAddress address) {
+        connections.decrementAndGet();
+        if (address != null) {
+            AtomicInteger counter = perIp.get(address);
+            if (counter != null && counter.decrementAndGet() == 0 && counter.compareAndSet(0, DEAD)) {
+                perIp.remove(address, counter);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of open admitted connections.
+     *
+     * @return the connections
+     */
+    public int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * Gets the number of client addresses with open connections.
+     *
+     * @return the addresses
+     */
+    public int getAddresses() {
+        return perIp.size();
+    }
+
+    /**
+     * Gets the number of connections rejected by the global limit.
+     *
+     * @return the rejected count
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the number of connections rejected by the per address limit.
+     *
+     * @return the rejected count
+     */
+    public long getRejectedPerIp() {
+        return rejectedPerIp.sum();
+    }
+
+    private void setLimits(int maxConnections, int maxConnectionsPerIp) {
+        this.maxConnections = maxConnections > 0 ? maxConnections : Integer.MAX_VALUE;
+        this.maxConnectionsPerIp = maxConnectionsPerIp > 0 ? maxConnectionsPerIp : Integer.MAX_VALUE;
+    }
+
+    private boolean acquire(InetAddress address) {
+        int max = maxConnectionsPerIp;
+        while (true) {
+            AtomicInteger counter = perIp.get(address);
+            if (counter == null) {
+                AtomicInteger created = new AtomicInteger();
+                counter = perIp.putIfAbsent(address, created);
+                if (counter == null) {
+                    counter = created;
+                }
+            }
+            int count = counter.get();
+            while (count != DEAD) {
+                if (count >= max) {
+                    return false;
+                }
+                if (counter.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+                count = counter.get();
+            }
+            // lost the race with the removal of a counter at zero
+            perIp.remove(address, counter);
+        }
+    }
+
+    private static boolean increment(AtomicInteger counter, int max) {
+        int count = counter.get();
+        while (count < max) {
+            if (counter.compareAndSet(count, count + 1)) {
+                return true;
+            }
+            count = counter.get();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.limit;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import ratpack.exec.ExecController;
+import ratpack.service.Service;
+import ratpack.service.StartEvent;
+import ratpack.service.StopEvent;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ratpack {@link Service} that measures how late a periodic task runs on each event loop.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = ConcurrencyLimitProperties.ENABLED, value = StringUtils.TRUE)
+public class EventLoopLagMonitor implements Service {
+
+    private final long intervalNanos;
+    private final List<ScheduledFuture<?>> probes = new ArrayList<>();
+    private volatile AtomicLongArray lags = new AtomicLongArray(0);
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The concurrency limit configuration
+     */
+    public EventLoopLagMonitor(ConcurrencyLimitProperties properties) {
+        this.intervalNanos = properties.getEventLoopLagInterval().toNanos();
+    }
+
+    @Override
+    public void onStart(StartEvent event) {
+        List<EventExecutor> loops = new ArrayList<>();
+        event.getRegistry().get(ExecController.class).getEventLoopGroup().forEach(loops::add);
+        AtomicLongArray lags = new AtomicLongArray(loops.size());
+        for (int i = 0; i < loops.size(); i++) {
+            probes.add(probe(loops.get(i), lags, i));
+        }
+        this.lags = lags;
+    }
+
+    @Override
+    public void onStop(StopEvent event) {
+        for (ScheduledFuture<?> probe : probes) {
+            probe.cancel(false);
+        }
+        probes.clear();
+        lags = new AtomicLongArray(0);
+    }
+
+    /**
+     * Gets the highest lag observed by the most recent probe of each event loop.
+     *
+     * @return the lag in nanoseconds
+     */
+    public long getMaxLagNanos() {
+        AtomicLongArray lags = this.lags;
+        long max = 0;
+        for (int i = 0; i < lags.length(); i++) {
+            max = Math.max(max, lags.get(i));
+        }
+        return max;
+    }
+
+    private ScheduledFuture<?> probe(EventExecutor loop, AtomicLongArray lags, int index) {
+        long[] last = {System.nanoTime()};
+        return loop.scheduleWithFixedDelay(() -> {
+            long now = System.nanoTime();
+            lags.set(index, Math.max(0, now - last[0] - intervalNanos));
+            last[0] = now;
+        }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+}
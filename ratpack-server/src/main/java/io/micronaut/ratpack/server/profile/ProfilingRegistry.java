@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.profile;
+
+import com.google.common.reflect.TypeToken;
+import io.micronaut.ratpack.server.profile.RegistryResolution.Layer;
+import ratpack.func.Function;
+import ratpack.registry.Registry;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Registry that consults the Micronaut beans and then the customizer registries, recording every lookup with the
+ * {@link RegistryProfiler}.
+ *
+ * <p>Precedence and order are those of {@code customizers.join(micronaut)}, which the registry replaces: the
+ * Micronaut beans answer first and come first among all instances.</p>
+ *
+ * <p>Lookups of every instance stay lazy, as they are in a joined registry: nothing is resolved until the result is
+ * iterated, and the time spent advancing the iteration is recorded once it is exhausted. {@link #first} records as
+ * soon as it stops, while an iteration abandoned part way is not recorded.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class ProfilingRegistry implements Registry {
+
+    private final Registry customizers;
+    private final Registry micronaut;
+    private final RegistryProfiler profiler;
+
+    /**
+     * @param customizers The joined customizer registries
+     * @param micronaut   The registry backed by the Micronaut beans
+     * @param profiler    The profiler
+     */
+    ProfilingRegistry(Registry customizers, Registry micronaut, RegistryProfiler profiler) {
+        this.customizers = customizers;
+        this.micronaut = micronaut;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public <O> Optional<O> maybeGet(TypeToken<O> type) {
+        long start = System.nanoTime();
+        Optional<O> value;
+        RegistryResolution previous = profiler.enter(type);
+        try {
+            value = micronaut.maybeGet(type);
+        } finally {
+            profiler.exit(previous);
+        }
+        Layer layer = Layer.MICRONAUT;
+        if (!value.isPresent()) {
+            value = customizers.maybeGet(type);
+            layer = value.isPresent() ? Layer.CUSTOMIZER : Layer.UNRESOLVED;
+        }
+        profiler.record(type, layer, System.nanoTime() - start);
+        return value;
+    }
+
+    @Override
+    public <O> Iterable<? extends O> getAll(TypeToken<O> type) {
+        return () -> new Resolving<>(type);
+    }
+
+    @Override
+    public <T, O> Optional<O> first(TypeToken<T> type, Function<? super T, ? extends O> function) throws Exception {
+        Resolving<T> items = new Resolving<>(type);
+        try {
+            while (items.hasNext()) {
+                O value = function.apply(items.next());
+                if (value != null) {
+                    return Optional.of(value);
+                }
+            }
+            return Optional.empty();
+        } finally {
+            items.finish();
+        }
+    }
+
+    /**
+     * Iterates the Micronaut beans and then the customizer registries, timing only the registry work.
+     *
+     * @param <O> The type of the instances
+     */
+    private final class Resolving<O> implements Iterator<O> {
+        private final TypeToken<O> type;
+        private Iterator<? extends O> items;
+        private boolean customizerItems;
+        private long nanos;
+        private boolean recorded;
+
+        Resolving(TypeToken<O> type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (recorded) {
+                return false;
+            }
+            long start = System.nanoTime();
+            boolean more;
+            try {
+                more = advance();
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+            if (!more) {
+                finish();
+            }
+            return more;
+        }
+
+        @Override
+        public O next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long start = System.nanoTime();
+            boolean fromMicronaut = !customizerItems;
+            RegistryResolution previous = fromMicronaut ? profiler.enter(type) : null;
+            try {
+                return items.next();
+            } finally {
+                if (fromMicronaut) {
+                    profiler.exit(previous);
+                }
+                nanos += System.nanoTime() - start;
+            }
+        }
+
+        void finish() {
+            if (!recorded) {
+                recorded = true;
+                profiler.record(type, Layer.ALL, nanos);
+            }
+        }
+
+        private boolean advance() {
+            if (!customizerItems) {
+                RegistryResolution previous = profiler.enter(type);
+                try {
+                    if (items == null) {
+                        items = micronaut.getAll(type).iterator();
+                    }
+                    if (items.hasNext()) {
+                        return true;
+                    }
+                } finally {
+                    profiler.exit(previous);
+                }
+                items = customizers.getAll(type).iterator();
+                customizerItems = true;
+            }
+            return items.hasNext();
+        }
+    }
+}
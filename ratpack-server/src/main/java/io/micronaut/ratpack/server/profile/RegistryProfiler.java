@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.profile;
+
+import com.google.common.reflect.TypeToken;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.ratpack.server.profile.RegistryResolution.Layer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.registry.Registry;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records how each type is resolved through the Ratpack user registry: how often it is looked up, which layer
+ * answered, how long resolution took and how many Micronaut beans were instantiated along the way.
+ *
+ * <p>When enabled, the joined registry of the customizer registries and the Micronaut beans is replaced by a
+ * profiling one. The profile is available from the {@code ratpackregistry} management endpoint, if
+ * micronaut-management is present, and is logged when the application context stops.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = RegistryProfilerProperties.ENABLED, value = StringUtils.TRUE)
+public class RegistryProfiler implements BeanCreatedEventListener<Object> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RegistryProfiler.class);
+
+    private final ConcurrentMap<TypeToken<?>, RegistryResolution> resolutions = new ConcurrentHashMap<>();
+    private final ThreadLocal<RegistryResolution> resolving = new ThreadLocal<>();
+    private final boolean logOnShutdown;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The profiler configuration
+     */
+    public RegistryProfiler(RegistryProfilerProperties properties) {
+        this.logOnShutdown = properties.isLogOnShutdown();
+    }
+
+    /**
+     * Joins the customizer registries with the Micronaut beans, profiling every lookup.
+     *
+     * @param customizers The joined customizer registries
+     * @param micronaut   The registry backed by the Micronaut beans
+     * @return the profiling registry
+     */
+    public Registry profile(Registry customizers, Registry micronaut) {
+        return new ProfilingRegistry(customizers, micronaut, this);
+    }
+
+    /**
+     * Gets the resolutions recorded so far, the most expensive in total first.
+     *
+     * @return the resolutions
+     */
+    public List<RegistryResolution> getResolutions() {
+        List<RegistryResolution> sorted = new ArrayList<>(resolutions.values());
+        sorted.sort(Comparator.comparingLong(RegistryResolution::getTotalMicros).reversed());
+        return sorted;
+    }
+
+    /**
+     * Discards the resolutions recorded so far.
+     */
+    public void reset() {
+        resolutions.clear();
+    }
+
+    @Override
+    public Object onCreated(BeanCreatedEvent<Object> event) {
+        RegistryResolution resolution = resolving.get();
+        if (resolution != null) {
+            resolution.instantiated();
+        }
+        return event.getBean();
+    }
+
+    /**
+     * Logs the resolutions when the application context stops.
+     */
+    @PreDestroy
+    public void close() {
+        if (logOnShutdown && !resolutions.isEmpty() && LOG.isInfoEnabled()) {
+            StringBuilder profile = new StringBuilder("Ratpack registry resolutions:");
+            for (RegistryResolution resolution : getResolutions()) {
+                profile.append(System.lineSeparator()).append("  ").append(resolution);
+            }
+            LOG.info(profile.toString());
+        }
+    }
+
+    RegistryResolution enter(TypeToken<?> type) {
+        RegistryResolution previous = resolving.get();
+        resolving.set(resolution(type));
+        return previous;
+    }
+
+    void exit(RegistryResolution previous) {
+        if (previous == null) {
+            resolving.remove();
+        } else {
+            resolving.set(previous);
+        }
+    }
+
+    void record(TypeToken<?> type, Layer layer, long nanos) {
+        resolution(type).record(layer, nanos);
+    }
+
+    private RegistryResolution resolution(TypeToken<?> type) {
+        RegistryResolution resolution = resolutions.get(type);
+        if (resolution == null) {
+            resolution = resolutions.computeIfAbsent(type, t -> new RegistryResolution(t.toString()));
+        }
+        return resolution;
+    }
+}
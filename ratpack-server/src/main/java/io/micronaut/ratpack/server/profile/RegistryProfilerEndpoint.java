@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.profile;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.management.endpoint.annotation.Delete;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.List;
+
+/**
+ * Management endpoint exposing the {@link RegistryProfiler} resolutions. A {@code DELETE} resets them.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Endpoint(id = RegistryProfilerEndpoint.ID, defaultSensitive = true)
+@Requires(classes = Endpoint.class)
+@Requires(beans = RegistryProfiler.class)
+public class RegistryProfilerEndpoint {
+
+    public static final String ID = "ratpackregistry";
+
+    private final RegistryProfiler profiler;
+
+    /**
+     * Default constructor.
+     *
+     * @param profiler The profiler
+     */
+    public RegistryProfilerEndpoint(RegistryProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * @return the resolutions, the most expensive in total first
+     */
+    @Read
+    public List<RegistryResolution> resolutions() {
+        return profiler.getResolutions();
+    }
+
+    /**
+     * Discards the recorded resolutions.
+     */
+    @Delete
+    public void reset() {
+        profiler.reset();
+    }
+}
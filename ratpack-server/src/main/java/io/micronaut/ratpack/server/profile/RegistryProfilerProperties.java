@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.profile;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+/**
+ * Configuration for the {@link RegistryProfiler}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(RegistryProfilerProperties.PREFIX)
+public class RegistryProfilerProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".registry-profiler";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private boolean logOnShutdown = true;
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the logOnShutdown, whether the profile is logged when the application context stops.
+     *
+     * @return the logOnShutdown
+     */
+    public boolean isLogOnShutdown() {
+        return logOnShutdown;
+    }
+
+    /**
+     * Sets the logOnShutdown.
+     *
+     * @param logOnShutdown the logOnShutdown
+     */
+    public void setLogOnShutdown(boolean logOnShutdown) {
+        this.logOnShutdown = logOnShutdown;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.profile;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The resolutions of a single type through the profiled registry.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public final class RegistryResolution {
+
+    private final String type;
+    private final LongAdder customizer = new LongAdder();
+    private final LongAdder micronaut = new LongAdder();
+    private final LongAdder unresolved = new LongAdder();
+    private final LongAdder all = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder instantiations = new LongAdder();
+
+    /**
+     * @param type The type name
+     */
+    RegistryResolution(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Gets the type.
+     *
+     * @return the type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the number of lookups.
+     *
+     * @return the lookups
+     */
+    public long getLookups() {
+        return customizer.sum() + micronaut.sum() + unresolved.sum() + all.sum();
+    }
+
+    /**
+     * Gets the number of single lookups that fell through to, and were answered by, a
+     * {@link io.micronaut.ratpack.server.RatpackServerCustomizer} registry.
+     *
+     * @return the customizer count
+     */
+    public long getCustomizer() {
+        return customizer.sum();
+    }
+
+    /**
+     * Gets the number of single lookups answered by the Micronaut context.
+     *
+     * @return the micronaut count
+     */
+    public long getMicronaut() {
+        return micronaut.sum();
+    }
+
+    /**
+     * Gets the number of single lookups answered by neither, which Ratpack then resolves from its server registry
+     * if it can.
+     *
+     * @return the unresolved count
+     */
+    public long getUnresolved() {
+        return unresolved.sum();
+    }
+
+    /**
+     * Gets the number of lookups of every instance, which consult both layers.
+     *
+     * @return the all count
+     */
+    public long getAll() {
+        return all.sum();
+    }
+
+    /**
+     * Gets the total time spent resolving, in microseconds.
+     *
+     * @return the total time
+     */
+    public long getTotalMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(totalNanos.sum());
+    }
+
+    /**
+     * Gets the longest single resolution, in microseconds.
+     *
+     * @return the longest time
+     */
+    public long getMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+    }
+
+    /**
+     * Gets the number of Micronaut beans instantiated while resolving.
+     *
+     * @return the instantiations
+     */
+    public long getInstantiations() {
+        return instantiations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return type + ": lookups=" + getLookups()
+                + " customizer=" + getCustomizer()
+                + " micronaut=" + getMicronaut()
+                + " unresolved=" + getUnresolved()
+                + " all=" + getAll()
+                + " totalMicros=" + getTotalMicros()
+                + " maxMicros=" + getMaxMicros()
+                + " instantiations=" + getInstantiations();
+    }
+
+    void record(Layer layer, long nanos) {
+        switch (layer) {
+            case CUSTOMIZER:
+                customizer.increment();
+                break;
+            case MICRONAUT:
+                micronaut.increment();
+                break;
+            case UNRESOLVED:
+                unresolved.increment();
+                break;
+            default:
+                all.increment();
+                break;
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    void instantiated() {
+        instantiations.increment();
+    }
+
+    /**
+     * The registry layer that answered a lookup.
+     */
+    enum Layer {
+        CUSTOMIZER, MICRONAUT, UNRESOLVED, ALL
+    }
+}
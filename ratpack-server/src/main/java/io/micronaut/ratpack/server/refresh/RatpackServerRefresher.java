@@ -0,0 +1,262 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.refresh;
+
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.env.Environment;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.ratpack.server.RatpackServerConfigBuilderFactory;
+import io.micronaut.ratpack.server.RatpackServerCustomizer;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+import io.micronaut.ratpack.server.limit.AdaptiveConcurrencyLimiter;
+import io.micronaut.ratpack.server.limit.ConcurrencyLimitProperties;
+import io.micronaut.ratpack.server.limit.ConnectionLimitProperties;
+import io.micronaut.ratpack.server.limit.ConnectionLimiter;
+import io.micronaut.ratpack.server.socket.SocketOptionsInitializer;
+import io.micronaut.runtime.context.scope.refresh.RefreshEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.server.RatpackServer;
+import ratpack.server.ServerConfigBuilder;
+
+import javax.annotation.Nullable;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Applies changed {@link RatpackServerProperties} to the running server when a {@link RefreshEvent} is published.
+ *
+ * <p>The maximum content length, idle timeout and per-connection socket options are applied in place by the
+ * {@link ServerRefreshHandler}: from the next request on every connection, without closing any. The socket
+ * options also apply to every connection accepted after the change. Every other
+ * property of the Ratpack server configuration is applied by rebuilding the configuration and reloading the
+ * server, which rebinds the listening socket and re-runs the registry and handler chain. Properties that decide
+ * which beans exist are only logged, as they need an application restart. Every change is logged.</p>
+ *
+ * <p>Rebinding is not a zero-downtime swap. Ratpack's reload stops the running server before starting the
+ * rebuilt one on the same instance, so requests in flight are dropped and the port refuses connections for the
+ * moment it is unbound; a drain-then-swap would need a second server, which Ratpack's single bound channel per
+ * server does not allow on the same port. Change those properties only where a brief gap is acceptable, or roll
+ * instances behind a load balancer instead.</p>
+ *
+ * <p>The rate limits are applied in place on every refresh: the {@code ratpack.server.concurrency-limit.*} bounds
+ * and thresholds are handed to the {@link AdaptiveConcurrencyLimiter} and the
+ * {@code ratpack.server.connection-limit.*} limits to the {@link ConnectionLimiter}. Turning either limit on or
+ * off, and the event loop lag probe interval, still need a restart and are only logged.</p>
+ *
+ * <p>The listener runs after the refresh scope, so configuration beans read by the handler chain have already
+ * been rebound when the server reloads.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = ServerRefreshProperties.ENABLED, value = StringUtils.TRUE)
+@Requires(beans = RatpackServer.class)
+public class RatpackServerRefresher implements ApplicationEventListener<RefreshEvent>, Ordered {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RatpackServerRefresher.class);
+
+    private static final List<Setting> SETTINGS = Arrays.asList(
+            new Setting("max-content-length", RatpackServerProperties::getMaxContentLength, Mode.IN_PLACE),
+            new Setting("idle-timeout", RatpackServerProperties::getIdleTimeout, Mode.IN_PLACE),
+            new Setting("tcp-no-delay", RatpackServerProperties::getTcpNoDelay, Mode.IN_PLACE),
+            new Setting("keep-alive", RatpackServerProperties::getKeepAlive, Mode.IN_PLACE),
+            new Setting("port", RatpackServerProperties::getPort, Mode.REBIND),
+            new Setting("host", RatpackServerProperties::getHost, Mode.REBIND),
+            new Setting("base-dir", RatpackServerProperties::getBaseDir, Mode.REBIND),
+            new Setting("development", RatpackServerProperties::isDevelopment, Mode.REBIND),
+            new Setting("context-path", RatpackServerProperties::getContextPath, Mode.REBIND),
+            new Setting("threads", RatpackServerProperties::getThreads, Mode.REBIND),
+            new Setting("public-address", RatpackServerProperties::getPublicAddress, Mode.REBIND),
+            new Setting("max-chunk-size", RatpackServerProperties::getMaxChunkSize, Mode.REBIND),
+            new Setting("max-initial-line-length", RatpackServerProperties::getMaxInitialLineLength, Mode.REBIND),
+            new Setting("max-header-size", RatpackServerProperties::getMaxHeaderSize, Mode.REBIND),
+            new Setting("connect-timeout", RatpackServerProperties::getConnectTimeout, Mode.REBIND),
+            new Setting("max-messages-per-read", RatpackServerProperties::getMaxMessagesPerRead, Mode.REBIND),
+            new Setting("receive-buffer-size", RatpackServerProperties::getReceiveBufferSize, Mode.REBIND),
+            new Setting("connect-queue-size", RatpackServerProperties::getConnectQueueSize, Mode.REBIND),
+            new Setting("write-spin-count", RatpackServerProperties::getWriteSpinCount, Mode.REBIND),
+            new Setting("port-file", RatpackServerProperties::getPortFile, Mode.REBIND),
+            new Setting("register-shutdown-hook", RatpackServerProperties::isRegisterShutdownHook, Mode.REBIND),
+            new Setting("enabled", RatpackServerProperties::isEnabled, Mode.RESTART),
+            new Setting("single-port", RatpackServerProperties::isSinglePort, Mode.RESTART)
+    );
+
+    private final BeanContext beanContext;
+    private final Environment environment;
+    private final ServerConfigBuilder serverConfigBuilder;
+    private final List<RatpackServerCustomizer> customizers;
+    private final Provider<RatpackServer> server;
+    private final SocketOptionsInitializer socketOptions;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ConnectionLimiter connectionLimiter;
+    private RatpackServerProperties applied;
+    private volatile RatpackServerProperties live;
+
+    /**
+     * Default constructor.
+     *
+     * @param beanContext         Creates freshly bound server configuration
+     * @param environment         The environment
+     * @param properties          The server configuration the server was started with
+     * @param serverConfigBuilder The builder the server reads its configuration from when it reloads
+     * @param customizers         The server customizers, re-applied to the rebuilt configuration
+     * @param server              The Ratpack server
+     * @param socketOptions         Applies the socket options to accepted connections
+     * @param concurrencyLimiter    The concurrency limiter, if enabled
+     * @param connectionLimiter     The connection limiter, if enabled
+     */
+    public RatpackServerRefresher(BeanContext beanContext,
+                                  Environment environment,
+                                  RatpackServerProperties properties,
+                                  ServerConfigBuilder serverConfigBuilder,
+                                  List<RatpackServerCustomizer> customizers,
+                                  Provider<RatpackServer> server,
+                                  @Nullable SocketOptionsInitializer socketOptions,
+                                  @Nullable AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                  @Nullable ConnectionLimiter connectionLimiter) {
+        this.beanContext = beanContext;
+        this.environment = environment;
+        this.applied = properties;
+        this.serverConfigBuilder = serverConfigBuilder;
+        this.customizers = customizers;
+        this.server = server;
+        this.socketOptions = socketOptions;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.connectionLimiter = connectionLimiter;
+    }
+
+    @Override
+    public synchronized void onApplicationEvent(RefreshEvent event) {
+        RatpackServerProperties refreshed = beanContext.createBean(RatpackServerProperties.class);
+        if (!environment.containsProperty(RatpackServerProperties.PORT)) {
+            // an unset port is random in tests, which must not read as a change
+            refreshed.setPort(applied.getPort());
+        }
+        boolean inPlace = false;
+        boolean rebind = false;
+        for (Setting setting : SETTINGS) {
+            Object from = setting.getter.apply(applied);
+            Object to = setting.getter.apply(refreshed);
+            if (Objects.equals(from, to)) {
+                continue;
+            }
+            if (setting.mode == Mode.RESTART) {
+                LOG.warn("{}.{} changed from {} to {}, which requires a restart",
+                        RatpackServerProperties.PREFIX, setting.name, from, to);
+            } else if (LOG.isInfoEnabled()) {
+                LOG.info("{}.{} changed from {} to {}, {}", RatpackServerProperties.PREFIX, setting.name, from, to,
+                        setting.mode == Mode.IN_PLACE ? "applying in place" : "rebinding");
+            }
+            inPlace |= setting.mode == Mode.IN_PLACE;
+            rebind |= setting.mode == Mode.REBIND;
+        }
+        refreshLimits();
+        applied = refreshed;
+        if (inPlace) {
+            live = refreshed;
+            if (socketOptions != null) {
+                socketOptions.setProperties(refreshed);
+            }
+        }
+        if (rebind) {
+            rebind(refreshed);
+        }
+    }
+
+    /**
+     * Gets the live server configuration applied in place, or null when no such property has changed since the
+     * server started.
+     *
+     * @return the live configuration
+     */
+    @Nullable
+    public RatpackServerProperties getLive() {
+        return live;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    private void refreshLimits() {
+        ConcurrencyLimitProperties concurrency = beanContext.createBean(ConcurrencyLimitProperties.class);
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.configure(concurrency);
+        }
+        if (concurrency.isEnabled() != (concurrencyLimiter != null)) {
+            LOG.warn("{} changed to {}, which requires a restart", ConcurrencyLimitProperties.ENABLED,
+                    concurrency.isEnabled());
+        }
+        ConnectionLimitProperties connection = beanContext.createBean(ConnectionLimitProperties.class);
+        if (connectionLimiter != null) {
+            connectionLimiter.configure(connection);
+        }
+        if (connection.isEnabled() != (connectionLimiter != null)) {
+            LOG.warn("{} changed to {}, which requires a restart", ConnectionLimitProperties.ENABLED,
+                    connection.isEnabled());
+        }
+    }
+
+    private void rebind(RatpackServerProperties refreshed) {
+        RatpackServer ratpackServer = server.get();
+        try {
+            RatpackServerConfigBuilderFactory.configure(serverConfigBuilder, refreshed);
+            for (RatpackServerCustomizer c : customizers) {
+                c.getServerConfig().execute(serverConfigBuilder);
+            }
+            if (ratpackServer.isRunning()) {
+                ratpackServer.reload();
+                if (LOG.isInfoEnabled()) {
+                    LOG.info("Ratpack rebound on port {}", ratpackServer.getBindPort());
+                }
+            }
+        } catch (Exception e) {
+            LOG.error("Unable to rebind Ratpack server: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * How a changed property is applied.
+     */
+    private enum Mode {
+        IN_PLACE, REBIND, RESTART
+    }
+
+    /**
+     * A server property and how a change to it is applied.
+     */
+    private static final class Setting {
+        private final String name;
+        private final Function<RatpackServerProperties, Object> getter;
+        private final Mode mode;
+
+        Setting(String name, Function<RatpackServerProperties, Object> getter, Mode mode) {
+            this.name = name;
+            this.getter = getter;
+            this.mode = mode;
+        }
+    }
+}
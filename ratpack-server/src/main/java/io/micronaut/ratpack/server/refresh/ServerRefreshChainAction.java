@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.refresh;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.order.Ordered;
+import ratpack.func.Action;
+import ratpack.handling.Chain;
+
+import javax.inject.Singleton;
+
+/**
+ * Installs the {@link ServerRefreshHandler}, right after the access log and the concurrency limit.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(beans = RatpackServerRefresher.class)
+public class ServerRefreshChainAction implements Action<Chain>, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 2;
+
+    private final RatpackServerRefresher refresher;
+
+    /**
+     * Default constructor.
+     *
+     * @param refresher The refresher
+     */
+    public ServerRefreshChainAction(RatpackServerRefresher refresher) {
+        this.refresher = refresher;
+    }
+
+    @Override
+    public void execute(Chain chain) {
+        chain.all(new ServerRefreshHandler(refresher));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.refresh;
+
+import io.micronaut.ratpack.server.RatpackServerProperties;
+import io.micronaut.ratpack.server.socket.SocketOptionsInitializer;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.http.Request;
+
+import java.time.Duration;
+
+/**
+ * Applies the live server configuration of the {@link RatpackServerRefresher} to each request: the maximum
+ * content length and idle timeout on the request, and the socket options once per connection and change, so
+ * connections accepted before the change pick them up too.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class ServerRefreshHandler implements Handler {
+
+    private static final AttributeKey<RatpackServerProperties> APPLIED =
+            AttributeKey.valueOf(ServerRefreshHandler.class, "applied");
+
+    private final RatpackServerRefresher refresher;
+
+    /**
+     * Default constructor.
+     *
+     * @param refresher The refresher
+     */
+    public ServerRefreshHandler(RatpackServerRefresher refresher) {
+        this.refresher = refresher;
+    }
+
+    @Override
+    public void handle(Context ctx) {
+        RatpackServerProperties live = refresher.getLive();
+        if (live != null) {
+            Request request = ctx.getRequest();
+            request.setMaxContentLength(live.getMaxContentLength());
+            request.setIdleTimeout(live.getIdleTimeout() != null ? live.getIdleTimeout() : Duration.ZERO);
+            Channel channel = ctx.getDirectChannelAccess().getChannel();
+            if (channel.attr(APPLIED).getAndSet(live) != live) {
+                SocketOptionsInitializer.configure(channel.config(), live);
+            }
+        }
+        ctx.next();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.server.binding.RequestArgumentSatisfier;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+import io.micronaut.web.router.Router;
+import ratpack.func.Action;
+import ratpack.handling.Chain;
+
+import javax.inject.Singleton;
+
+/**
+ * Installs the {@link MicronautRouteHandler} after every other handler when
+ * {@code ratpack.server.single-port} is enabled.
+ *
+ * <p>To serve everything from the Ratpack port, leave {@code micronaut-http-server-netty} off the classpath;
+ * the {@link io.micronaut.ratpack.server.RatpackEmbeddedServer} then becomes the only embedded server.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = RatpackServerProperties.SINGLE_PORT, value = StringUtils.TRUE)
+@Requires(classes = RequestArgumentSatisfier.class)
+@Requires(beans = Router.class)
+public class MicronautRouteChainAction implements Action<Chain>, Ordered {
+
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    private final MicronautRouteHandler handler;
+
+    /**
+     * Default constructor.
+     *
+     * @param router            The Micronaut router
+     * @param argumentSatisfier Binds route arguments from the request
+     * @param objectMapper      Reads JSON request bodies
+     */
+    public MicronautRouteChainAction(Router router, RequestArgumentSatisfier argumentSatisfier, ObjectMapper objectMapper) {
+        this.handler = new MicronautRouteHandler(router, argumentSatisfier, objectMapper);
+    }
+
+    @Override
+    public void execute(Chain chain) {
+        chain.all(handler);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.exceptions.HttpStatusException;
+import io.micronaut.http.server.binding.RequestArgumentSatisfier;
+import io.micronaut.http.simple.SimpleHttpRequest;
+import io.micronaut.web.router.RouteMatch;
+import io.micronaut.web.router.Router;
+import io.micronaut.web.router.UriRouteMatch;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import org.reactivestreams.Publisher;
+import ratpack.exec.Blocking;
+import ratpack.exec.Promise;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.http.Request;
+import ratpack.http.Response;
+import ratpack.http.TypedData;
+import ratpack.jackson.Jackson;
+import ratpack.stream.Streams;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Handler that executes Micronaut controller routes for requests that no Ratpack handler matched.
+ *
+ * <p>Routes are resolved with the Micronaut {@link Router} and their arguments bound by the
+ * {@link RequestArgumentSatisfier} against a request adapted from the Ratpack one, so controllers run in the
+ * Ratpack execution on the same connection. Reactive and {@link CompletionStage} results are consumed on the
+ * event loop; any other result is produced on a blocking thread. Micronaut HTTP filters and error routes are
+ * not applied.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class MicronautRouteHandler implements Handler {
+
+    private final Router router;
+    private final RequestArgumentSatisfier argumentSatisfier;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Default constructor.
+     *
+     * @param router            The Micronaut router
+     * @param argumentSatisfier Binds route arguments from the request
+     * @param objectMapper      Reads JSON request bodies
+     */
+    public MicronautRouteHandler(Router router, RequestArgumentSatisfier argumentSatisfier, ObjectMapper objectMapper) {
+        this.router = router;
+        this.argumentSatisfier = argumentSatisfier;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void handle(Context ctx) {
+        Request request = ctx.getRequest();
+        HttpMethod method = HttpMethod.parse(request.getMethod().getName());
+        SimpleHttpRequest<Object> micronautRequest = adapt(request, method, "/" + request.getPath());
+        List<UriRouteMatch<Object, Object>> matches = router.findAllClosest(micronautRequest);
+        if (matches.isEmpty()) {
+            micronautRequest = adapt(request, method, "/" + ctx.getPathBinding().getPastBinding());
+            matches = router.findAllClosest(micronautRequest);
+        }
+        if (matches.isEmpty()) {
+            ctx.next();
+            return;
+        }
+        UriRouteMatch<Object, Object> match = matches.get(0);
+        SimpleHttpRequest<Object> matchedRequest = micronautRequest;
+        request.getBody()
+                .map(body -> {
+                    matchedRequest.body(body(body));
+                    return argumentSatisfier.fulfillArgumentRequirements(match, matchedRequest, true);
+                })
+                .flatMap(route -> {
+                    if (!route.isExecutable()) {
+                        throw new HttpStatusException(HttpStatus.BAD_REQUEST,
+                                "Required arguments could not be satisfied: " + route.getRequiredArguments());
+                    }
+                    return execute(route);
+                })
+                .onError(e -> error(ctx, e))
+                .then(result -> send(ctx, match, result));
+    }
+
+    private SimpleHttpRequest<Object> adapt(Request request, HttpMethod method, String path) {
+        String query = request.getQuery();
+        SimpleHttpRequest<Object> adapted = new SimpleHttpRequest<>(method,
+                query.isEmpty() ? path : path + '?' + query, null);
+        for (String name : request.getHeaders().getNames()) {
+            for (String value : request.getHeaders().getAll(name)) {
+                adapted.getHeaders().add(name, value);
+            }
+        }
+        return adapted;
+    }
+
+    private Object body(TypedData body) throws Exception {
+        ByteBuf buffer = body.getBuffer();
+        if (!buffer.isReadable()) {
+            return null;
+        }
+        if (body.getContentType().isJson()) {
+            try (InputStream in = new ByteBufInputStream(buffer.duplicate())) {
+                return objectMapper.readTree(in);
+            }
+        }
+        return body.getText();
+    }
+
+    private Promise<Object> execute(RouteMatch<?> route) {
+        Class<?> returnType = route.getReturnType().getType();
+        if (Publishers.isConvertibleToPublisher(returnType) || CompletionStage.class.isAssignableFrom(returnType)) {
+            return Promise.flatten(() -> promise(route.execute()));
+        }
+        return Blocking.<Object>get(route::execute).flatMap(this::promise);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Promise<Object> promise(Object result) {
+        if (result instanceof CompletionStage) {
+            return Promise.async(downstream -> downstream.accept((CompletionStage<Object>) result));
+        }
+        if (result != null && Publishers.isConvertibleToPublisher(result)) {
+            Publisher<Object> publisher = ConversionService.SHARED.convert(result, Publisher.class)
+                    .orElseThrow(() -> new IllegalStateException("Unsupported reactive type: " + result.getClass()));
+            return Streams.toPromise(publisher);
+        }
+        return Promise.value(result);
+    }
+
+    private void send(Context ctx, UriRouteMatch<Object, Object> match, Object result) {
+        Response response = ctx.getResponse();
+        Object body = result;
+        if (result instanceof HttpResponse) {
+            HttpResponse<?> micronautResponse = (HttpResponse<?>) result;
+            response.status(micronautResponse.getStatus().getCode());
+            micronautResponse.getHeaders().forEach((name, values) ->
+                    values.forEach(value -> response.getHeaders().add(name, value)));
+            body = micronautResponse.getBody().orElse(null);
+        } else if (result == null && !isVoid(match.getReturnType().getType())) {
+            ctx.clientError(HttpStatus.NOT_FOUND.getCode());
+            return;
+        }
+        if (body == null) {
+            response.send();
+            return;
+        }
+        List<MediaType> produces = match.getProduces();
+        String contentType = produces.isEmpty() ? MediaType.APPLICATION_JSON : produces.get(0).toString();
+        if (body instanceof CharSequence) {
+            response.contentTypeIfNotSet(contentType).send(body.toString());
+        } else if (body instanceof byte[]) {
+            response.contentTypeIfNotSet(contentType).send((byte[]) body);
+        } else if (body instanceof ByteBuf) {
+            response.contentTypeIfNotSet(contentType).send((ByteBuf) body);
+        } else {
+            ctx.render(Jackson.json(body));
+        }
+    }
+
+    private void error(Context ctx, Throwable throwable) {
+        if (throwable instanceof HttpStatusException) {
+            HttpStatusException e = (HttpStatusException) throwable;
+            ctx.getResponse().status(e.getStatus().getCode()).send(String.valueOf(e.getMessage()));
+        } else {
+            ctx.error(throwable);
+        }
+    }
+
+    private static boolean isVoid(Class<?> type) {
+        return type == void.class || type == Void.class;
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.session;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.util.AsciiString;
+import ratpack.exec.Operation;
+import ratpack.exec.Promise;
+import ratpack.session.SessionStore;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Memory bounded, least recently used {@link SessionStore} for sticky-session deployments.
+ *
+ * <p>Sessions are spread over independently locked stripes, each holding an equal share of the size bound. The
+ * serialized session bytes are copied into a buffer sized to fit, either a heap buffer or, off heap, a direct
+ * buffer from Netty's pooled allocator. Pooled direct buffers are carved from arenas the allocator already holds,
+ * so storing a session neither registers a cleaner nor reserves direct memory through the JDK, which may force a
+ * garbage collection. The store owns every buffer it holds and releases it as soon as the session is replaced,
+ * removed, evicted or expired. Loads copy the bytes onto the heap while holding the stripe lock, so a buffer is
+ * never read after it has been released.</p>
+ *
+ * <p>A session expires once it has not been loaded or stored for the configured time to live; as loads and
+ * stores also refresh recency, the least recently used session of a stripe is always the first to expire. The
+ * statistics are kept in per stripe fields, written under the stripe lock and read without it.</p>
+ *
+ * <p>The store is a Micronaut bean and therefore the {@link SessionStore} of the Ratpack registry.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = SessionStore.class)
+@Requires(property = SessionStoreProperties.ENABLED, value = StringUtils.TRUE)
+public class BoundedSessionStore implements SessionStore {
+
+    // approximate heap cost of the map entry, key and session header beyond their byte content
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Stripe[] stripes;
+    private final long ttl;
+    private final boolean offHeap;
+    private final ByteBufAllocator allocator;
+    private final LongSupplier clock;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The store configuration
+     */
+    @Inject
+    public BoundedSessionStore(SessionStoreProperties properties) {
+        this(properties.getMaxSize(), properties.getTtl().toMillis(), properties.getStripes(), properties.isOffHeap(),
+                System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor taking an explicit clock.
+     *
+     * @param maxSize The maximum number of bytes to hold
+     * @param ttl     The time to live in millis
+     * @param stripes The number of stripes
+     * @param offHeap Whether to hold session data in direct memory
+     * @param clock   Supplies the current epoch millis
+     */
+    BoundedSessionStore(long maxSize, long ttl, int stripes, boolean offHeap, LongSupplier clock) {
+        this(maxSize, ttl, stripes, offHeap, PooledByteBufAllocator.DEFAULT, clock);
+    }
+
+    /**
+     * Constructor taking an explicit allocator for direct buffers and clock.
+     *
+     * @param maxSize   The maximum number of bytes to hold
+     * @param ttl       The time to live in millis
+     * @param stripes   The number of stripes
+     * @param offHeap   Whether to hold session data in direct memory
+     * @param allocator Allocates the direct buffers holding session data
+     * @param clock     Supplies the current epoch millis
+     */
+    BoundedSessionStore(long maxSize, long ttl, int stripes, boolean offHeap, ByteBufAllocator allocator,
+                        LongSupplier clock) {
+        int count = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(maxSize / count);
+        }
+        this.ttl = ttl;
+        this.offHeap = offHeap;
+        this.allocator = allocator;
+        this.clock = clock;
+    }
+
+    @Override
+    public Operation store(AsciiString sessionId, ByteBuf sessionData) {
+        return Operation.of(() -> {
+            int length = sessionData.readableBytes();
+            ByteBuf data = offHeap ? allocator.directBuffer(length, length) : Unpooled.buffer(length, length);
+            data.writeBytes(sessionData, sessionData.readerIndex(), length);
+            stripe(sessionId).put(sessionId, data, clock.getAsLong(), ttl);
+        });
+    }
+
+    @Override
+    public Promise<ByteBuf> load(AsciiString sessionId) {
+        return Promise.sync(() -> {
+            ByteBuf data = stripe(sessionId).get(sessionId, clock.getAsLong(), ttl);
+            return data == null ? Unpooled.EMPTY_BUFFER : data;
+        });
+    }
+
+    @Override
+    public Operation remove(AsciiString sessionId) {
+        return Operation.of(() -> stripe(sessionId).remove(sessionId));
+    }
+
+    @Override
+    public Promise<Long> size() {
+        return Promise.sync(this::getCount);
+    }
+
+    /**
+     * Removes every session.
+     */
+    @PreDestroy
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Gets the number of sessions held.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.count;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of bytes held, including the estimated overhead of each session.
+     *
+     * @return the size
+     */
+    public long getSize() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of sessions evicted to stay within the size bound.
+     *
+     * @return the evictions
+     */
+    public long getEvictions() {
+        long evictions = 0;
+        for (Stripe stripe : stripes) {
+            evictions += stripe.evictions;
+        }
+        return evictions;
+    }
+
+    /**
+     * Gets the number of sessions removed because their time to live passed.
+     *
+     * @return the expirations
+     */
+    public long getExpirations() {
+        long expirations = 0;
+        for (Stripe stripe : stripes) {
+            expirations += stripe.expirations;
+        }
+        return expirations;
+    }
+
+    private Stripe stripe(AsciiString sessionId) {
+        int h = sessionId.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * A stored session.
+     */
+    private static final class Entry {
+        private final ByteBuf data;
+        private final int size;
+        private long expiresAt;
+
+        Entry(AsciiString sessionId, ByteBuf data, long expiresAt) {
+            this.data = data;
+            this.size = sessionId.length() + data.readableBytes() + ENTRY_OVERHEAD;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * An independently locked partition of the sessions, in access order.
+     */
+    private static final class Stripe {
+        private final long maxSize;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<AsciiString, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+        private volatile long count;
+        private volatile long size;
+        private volatile long evictions;
+        private volatile long expirations;
+
+        Stripe(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        ByteBuf get(AsciiString sessionId, long now, long ttl) {
+            lock.lock();
+            try {
+                expire(now);
+                Entry entry = entries.get(sessionId);
+                if (entry == null) {
+                    return null;
+                }
+                entry.expiresAt = now + ttl;
+                return Unpooled.copiedBuffer(entry.data);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(AsciiString sessionId, ByteBuf data, long now, long ttl) {
+            Entry entry = new Entry(sessionId, data, now + ttl);
+            lock.lock();
+            try {
+                expire(now);
+                discard(entries.remove(sessionId));
+                if (entry.size > maxSize) {
+                    data.release();
+                    evictions++;
+                    return;
+                }
+                entries.put(sessionId, entry);
+                count++;
+                size += entry.size;
+                Iterator<Entry> eldest = entries.values().iterator();
+                while (size > maxSize && eldest.hasNext()) {
+                    Entry evicted = eldest.next();
+                    eldest.remove();
+                    discard(evicted);
+                    evictions++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(AsciiString sessionId) {
+            lock.lock();
+            try {
+                discard(entries.remove(sessionId));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                entries.values().forEach(entry -> entry.data.release());
+                entries.clear();
+                count = 0;
+                size = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void expire(long now) {
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (eldest.hasNext()) {
+                Entry entry = eldest.next();
+                if (entry.expiresAt > now) {
+                    return;
+                }
+                eldest.remove();
+                discard(entry);
+                expirations++;
+            }
+        }
+
+        private void discard(Entry entry) {
+            if (entry != null) {
+                count--;
+                size -= entry.size;
+                entry.data.release();
+            }
+        }
+    }
+}
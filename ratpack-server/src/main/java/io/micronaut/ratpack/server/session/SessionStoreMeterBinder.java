@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.session;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+
+/**
+ * Publishes the {@link BoundedSessionStore} statistics to Micrometer.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+@Requires(beans = BoundedSessionStore.class)
+public class SessionStoreMeterBinder implements MeterBinder {
+
+    private final BoundedSessionStore store;
+
+    /**
+     * Default constructor.
+     *
+     * @param store The session store
+     */
+    public SessionStoreMeterBinder(BoundedSessionStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ratpack.server.sessions.count", store, BoundedSessionStore::getCount)
+                .description("Sessions held by the session store")
+                .register(registry);
+        Gauge.builder("ratpack.server.sessions.size", store, BoundedSessionStore::getSize)
+                .description("Bytes held by the session store")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.sessions.removals", store, BoundedSessionStore::getEvictions)
+                .tag("cause", "size")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.sessions.removals", store, BoundedSessionStore::getExpirations)
+                .tag("cause", "expired")
+                .register(registry);
+    }
+}
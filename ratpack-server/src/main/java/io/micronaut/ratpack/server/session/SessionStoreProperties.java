@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.session;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the {@link BoundedSessionStore}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(SessionStoreProperties.PREFIX)
+public class SessionStoreProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".session-store";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private long maxSize = 64L * 1024 * 1024;
+    private Duration ttl = Duration.ofMinutes(30);
+    private int stripes = 16;
+    private boolean offHeap = false;
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the maxSize, the total number of bytes of session data and keys the store may hold.
+     *
+     * @return the maxSize
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maxSize.
+     *
+     * @param maxSize the maxSize
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the ttl, how long a session is kept after it was last loaded or stored.
+     *
+     * @return the ttl
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Sets the ttl.
+     *
+     * @param ttl the ttl
+     */
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Gets the stripes, the number of independently locked partitions, rounded up to a power of two.
+     *
+     * @return the stripes
+     */
+    public int getStripes() {
+        return stripes;
+    }
+
+    /**
+     * Sets the stripes.
+     *
+     * @param stripes the stripes
+     */
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    /**
+     * Gets the offHeap, whether session data is held in pooled direct buffers rather than on the heap.
+     *
+     * @return the offHeap
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Sets the offHeap.
+     *
+     * @param offHeap the offHeap
+     */
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.socket;
+
+import io.micronaut.core.order.Ordered;
+import io.micronaut.ratpack.server.RatpackChannelInitializer;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.ChannelOption;
+
+import javax.inject.Singleton;
+
+/**
+ * Applies the configured socket options to each connection as it is accepted, before it reads any bytes.
+ *
+ * <p>Ratpack does not expose the child options of its server bootstrap, so the options are set on the channel
+ * when it is registered, which has the same effect. Changes published by the
+ * {@link io.micronaut.ratpack.server.refresh.RatpackServerRefresher} apply to connections accepted afterwards.</p>
+ *
+ * <p>{@code TCP_QUICKACK} is deliberately not offered: Linux clears it again after the next acknowledgement, so
+ * setting it once per connection has next to no effect, and setting it on every read costs a system call per
+ * read.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+public class SocketOptionsInitializer implements RatpackChannelInitializer {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    private volatile RatpackServerProperties properties;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The server configuration
+     */
+    public SocketOptionsInitializer(RatpackServerProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void initChannel(Channel channel) {
+        configure(channel.config(), properties);
+    }
+
+    /**
+     * Sets the server configuration applied to connections accepted from now on.
+     *
+     * @param properties The server configuration
+     */
+    public void setProperties(RatpackServerProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Applies the configured socket options to a channel.
+     *
+     * @param config     The channel configuration
+     * @param properties The server configuration
+     */
+    public static void configure(ChannelConfig config, RatpackServerProperties properties) {
+        Boolean tcpNoDelay = properties.getTcpNoDelay();
+        Boolean keepAlive = properties.getKeepAlive();
+        if (tcpNoDelay != null) {
+            config.setOption(ChannelOption.TCP_NODELAY, tcpNoDelay);
+        }
+        if (keepAlive != null) {
+            config.setOption(ChannelOption.SO_KEEPALIVE, keepAlive);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.sse;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The events waiting to be written to one client, published as the body of its response.
+ *
+ * <p>Ratpack only requests the next buffer once the previous one has been written and the channel is writable,
+ * so events queue here while the client is slow to read. A client with more than the allowed number of pending
+ * events is disconnected rather than buffered without bound.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class SseConnection implements Publisher<ByteBuf>, Subscription {
+
+    private final Channel channel;
+    private final int maxPending;
+    private final LongAdder disconnected;
+    private final Queue<ByteBuf> pending = new ArrayDeque<>();
+    private Runnable onCancel = () -> { };
+    private Subscriber<? super ByteBuf> subscriber;
+    private long demand;
+    private boolean closed;
+
+    /**
+     * @param channel      The channel of the client
+     * @param maxPending   The most pending events before the client is disconnected
+     * @param disconnected Counts clients disconnected for being too slow
+     */
+    SseConnection(Channel channel, int maxPending, LongAdder disconnected) {
+        this.channel = channel;
+        this.maxPending = maxPending;
+        this.disconnected = disconnected;
+    }
+
+    @Override
+    public synchronized void subscribe(Subscriber<? super ByteBuf> s) {
+        subscriber = s;
+        s.onSubscribe(this);
+        drain();
+    }
+
+    @Override
+    public synchronized void request(long n) {
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        drain();
+    }
+
+    @Override
+    public synchronized void cancel() {
+        close();
+    }
+
+    /**
+     * @param onCancel Called once the client has gone away or been disconnected
+     */
+    void onCancel(Runnable onCancel) {
+        this.onCancel = onCancel;
+    }
+
+    /**
+     * Queues an event, disconnecting the client if too many events are already pending.
+     *
+     * @param event The encoded event, which the connection releases
+     */
+    synchronized void offer(ByteBuf event) {
+        if (closed) {
+            event.release();
+            return;
+        }
+        if (pending.size() >= maxPending) {
+            event.release();
+            close();
+            disconnected.increment();
+            channel.close();
+            return;
+        }
+        pending.add(event);
+        drain();
+    }
+
+    /**
+     * Queues a replayed event regardless of how many events are pending.
+     *
+     * @param event The encoded event, which the connection releases
+     */
+    synchronized void replay(ByteBuf event) {
+        if (closed) {
+            event.release();
+            return;
+        }
+        pending.add(event);
+        drain();
+    }
+
+    private void drain() {
+        while (subscriber != null && demand > 0 && !pending.isEmpty()) {
+            demand--;
+            subscriber.onNext(pending.poll());
+        }
+    }
+
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        onCancel.run();
+        ByteBuf event = pending.poll();
+        while (event != null) {
+            event.release();
+            event = pending.poll();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.sse;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import ratpack.handling.Context;
+
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes Server-Sent Events from Micronaut services to every client subscribed to a named stream.
+ *
+ * <p>Each event is encoded once and written to all clients as a retained duplicate of the same buffer. The most
+ * recent events of each stream are kept so that a reconnecting client sending {@code Last-Event-ID} receives
+ * what it missed. Clients that fall too far behind are disconnected, and a single shared timer sends heartbeat
+ * comments to keep idle connections open once the first client subscribes.</p>
+ *
+ * <pre>
+ * chain.get("prices", ctx -&gt; ctx.get(SseHub.class).subscribe(ctx, "prices"));
+ *
+ * sseHub.publish("prices", "tick", json);
+ * </pre>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+public class SseHub implements AutoCloseable {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    private static final ByteBuf HEARTBEAT = Unpooled.unreleasableBuffer(
+            Unpooled.copiedBuffer(":\n\n", StandardCharsets.UTF_8));
+
+    private final int replaySize;
+    private final int maxPending;
+    private final Map<String, SseStream> streams = new ConcurrentHashMap<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+    private final long heartbeatMillis;
+    private ScheduledExecutorService heartbeat;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The hub configuration
+     */
+    public SseHub(SseHubProperties properties) {
+        this.replaySize = properties.getReplaySize();
+        this.maxPending = Math.max(1, properties.getMaxPending());
+        this.heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+    }
+
+    /**
+     * Publishes an event to a stream.
+     *
+     * @param stream The stream
+     * @param event  The event name, or null for the default {@code message} event
+     * @param data   The event data
+     * @return the id of the event
+     */
+    public long publish(String stream, @Nullable String event, String data) {
+        published.increment();
+        return stream(stream).publish(event, data);
+    }
+
+    /**
+     * Sends a stream of events as the response to the request, starting after the request's
+     * {@code Last-Event-ID} if it has one.
+     *
+     * @param ctx    The request context
+     * @param stream The stream
+     */
+    public void subscribe(Context ctx, String stream) {
+        startHeartbeat();
+        SseConnection connection = new SseConnection(ctx.getDirectChannelAccess().getChannel(), maxPending, disconnected);
+        stream(stream).add(connection, lastEventId(ctx.getRequest().getHeaders().get(LAST_EVENT_ID)));
+        ctx.getResponse().getHeaders()
+                .set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE)
+                .set(HttpHeaderNames.CONTENT_TYPE, "text/event-stream;charset=UTF-8");
+        ctx.getResponse().sendStream(connection);
+    }
+
+    /**
+     * Gets the number of connected clients across all streams.
+     *
+     * @return the connection count
+     */
+    public int getConnections() {
+        int connections = 0;
+        for (SseStream stream : streams.values()) {
+            connections += stream.getConnections();
+        }
+        return connections;
+    }
+
+    /**
+     * Gets the number of events published.
+     *
+     * @return the published count
+     */
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /**
+     * Gets the number of clients disconnected for falling behind.
+     *
+     * @return the disconnected count
+     */
+    public long getDisconnected() {
+        return disconnected.sum();
+    }
+
+    /**
+     * Stops the heartbeat timer and releases the retained events.
+     */
+    @PreDestroy
+    @Override
+    public synchronized void close() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+        for (SseStream stream : streams.values()) {
+            stream.close();
+        }
+    }
+
+    private SseStream stream(String name) {
+        return streams.computeIfAbsent(name, n -> new SseStream(replaySize));
+    }
+
+    private synchronized void startHeartbeat() {
+        if (heartbeat != null || heartbeatMillis <= 0) {
+            return;
+        }
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ratpack-sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void heartbeat() {
+        for (SseStream stream : streams.values()) {
+            stream.broadcast(HEARTBEAT);
+        }
+    }
+
+    private static long lastEventId(String header) {
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
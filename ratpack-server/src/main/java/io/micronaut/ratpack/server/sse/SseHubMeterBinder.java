@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.sse;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+
+/**
+ * Binds the SSE hub metrics to Micrometer when it is on the classpath.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+@Requires(beans = SseHub.class)
+public class SseHubMeterBinder implements MeterBinder {
+
+    private final SseHub hub;
+
+    /**
+     * Default constructor.
+     *
+     * @param hub The hub
+     */
+    public SseHubMeterBinder(SseHub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ratpack.server.sse.connections", hub, SseHub::getConnections)
+                .description("Connected Server-Sent Events clients")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.sse.published", hub, SseHub::getPublished)
+                .description("Server-Sent Events published")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.sse.disconnected", hub, SseHub::getDisconnected)
+                .description("Server-Sent Events clients disconnected for falling behind")
+                .register(registry);
+    }
+}
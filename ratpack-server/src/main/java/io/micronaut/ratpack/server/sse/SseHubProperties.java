@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.sse;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the {@link SseHub}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(SseHubProperties.PREFIX)
+public class SseHubProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".sse";
+
+    private int replaySize = 256;
+    private int maxPending = 64;
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Gets the replaySize, the number of recent events per stream kept for clients reconnecting with
+     * {@code Last-Event-ID}.
+     *
+     * @return the replaySize
+     */
+    public int getReplaySize() {
+        return replaySize;
+    }
+
+    /**
+     * Sets the replaySize.
+     *
+     * @param replaySize the replaySize
+     */
+    public void setReplaySize(int replaySize) {
+        this.replaySize = replaySize;
+    }
+
+    /**
+     * Gets the maxPending, the most events waiting to be written to a client before it is disconnected as too
+     * slow.
+     *
+     * @return the maxPending
+     */
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * Sets the maxPending.
+     *
+     * @param maxPending the maxPending
+     */
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Gets the heartbeatInterval.
+     *
+     * @return the heartbeatInterval, zero to send no heartbeats
+     */
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    /**
+     * Sets the heartbeatInterval.
+     *
+     * @param heartbeatInterval the heartbeatInterval
+     */
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.sse;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A named stream of events with its subscribed connections and a ring of recent events for replay.
+ *
+ * <p>Publishing and subscribing hold the stream lock, so a new subscriber sees every event after its
+ * {@code Last-Event-ID} exactly once, in order.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class SseStream {
+
+    private final ByteBuf[] replay;
+    private final Set<SseConnection> connections = ConcurrentHashMap.newKeySet();
+    private long nextId = 1;
+
+    /**
+     * @param replaySize The number of recent events to keep
+     */
+    SseStream(int replaySize) {
+        this.replay = new ByteBuf[Math.max(0, replaySize)];
+    }
+
+    /**
+     * Encodes an event once and queues it for every connection.
+     *
+     * @param event The event name, or null
+     * @param data  The event data
+     * @return the id of the event
+     */
+    synchronized long publish(String event, String data) {
+        long id = nextId++;
+        ByteBuf encoded = encode(id, event, data);
+        try {
+            if (replay.length > 0) {
+                int slot = (int) (id % replay.length);
+                if (replay[slot] != null) {
+                    replay[slot].release();
+                }
+                replay[slot] = encoded.retain();
+            }
+            for (SseConnection connection : connections) {
+                connection.offer(encoded.retainedDuplicate());
+            }
+        } finally {
+            encoded.release();
+        }
+        return id;
+    }
+
+    /**
+     * Queues a shared event, such as a heartbeat, for every connection without keeping it for replay.
+     *
+     * @param encoded The encoded event, which is not released
+     */
+    void broadcast(ByteBuf encoded) {
+        for (SseConnection connection : connections) {
+            connection.offer(encoded.retainedDuplicate());
+        }
+    }
+
+    /**
+     * Subscribes a connection, first replaying the retained events after the last one it saw.
+     *
+     * @param connection  The connection
+     * @param lastEventId The id of the last event the client saw, or -1 for none
+     */
+    synchronized void add(SseConnection connection, long lastEventId) {
+        connection.onCancel(() -> connections.remove(connection));
+        if (lastEventId >= 0 && replay.length > 0) {
+            for (long id = Math.max(lastEventId + 1, nextId - replay.length); id < nextId; id++) {
+                connection.replay(replay[(int) (id % replay.length)].retainedDuplicate());
+            }
+        }
+        connections.add(connection);
+    }
+
+    /**
+     * Gets the number of connections.
+     *
+     * @return the connection count
+     */
+    int getConnections() {
+        return connections.size();
+    }
+
+    /**
+     * Releases the retained events.
+     */
+    synchronized void close() {
+        for (int i = 0; i < replay.length; i++) {
+            if (replay[i] != null) {
+                replay[i].release();
+                replay[i] = null;
+            }
+        }
+    }
+
+    private static ByteBuf encode(long id, String event, String data) {
+        StringBuilder builder = new StringBuilder(data.length() + 32);
+        builder.append("id: ").append(id).append('\n');
+        if (event != null) {
+            builder.append("event: ").append(event).append('\n');
+        }
+        for (String line : data.split("\r\n|\r|\n", -1)) {
+            builder.append("data: ").append(line).append('\n');
+        }
+        builder.append('\n');
+        return ByteBufUtil.writeUtf8(ByteBufAllocator.DEFAULT, builder);
+    }
+}
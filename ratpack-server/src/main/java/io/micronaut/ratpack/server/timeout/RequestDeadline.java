@@ -0,0 +1,241 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.timeout;
+
+import ratpack.exec.Blocking;
+import ratpack.exec.Downstream;
+import ratpack.exec.Execution;
+import ratpack.exec.Promise;
+import ratpack.func.Factory;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The deadline of a request, stored in its Ratpack {@link Execution}.
+ *
+ * <p>When the deadline passes the client is answered with a 503 and the connection is closed. Work that should
+ * stop at the same time is wrapped with {@link #bound(Promise)}, which fails it with a
+ * {@link RequestTimeoutException}, or run with {@link #blocking(Factory)}, which also interrupts the blocking
+ * thread:</p>
+ *
+ * <pre>
+ * chain.get("report", ctx -&gt; RequestDeadline.current()
+ *     .map(deadline -&gt; deadline.blocking(reportService::generate))
+ *     .orElseGet(() -&gt; Blocking.get(reportService::generate))
+ *     .then(ctx::render));
+ * </pre>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public final class RequestDeadline {
+
+    private static final int ACTIVE = 0;
+    private static final int COMPLETED = 1;
+    private static final int EXPIRED = 2;
+
+    private final Duration timeout;
+    private final long deadlineNanos;
+    private final AtomicInteger state = new AtomicInteger(ACTIVE);
+    private final Queue<Runnable> onExpiry = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param timeout       The timeout of the request
+     * @param deadlineNanos The {@link System#nanoTime()} at which the request expires
+     */
+    RequestDeadline(Duration timeout, long deadlineNanos) {
+        this.timeout = timeout;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Gets the deadline of the current execution.
+     *
+     * @return the deadline, empty if there is no execution or the request has no deadline
+     */
+    public static Optional<RequestDeadline> current() {
+        return Execution.currentOpt().flatMap(execution -> execution.maybeGet(RequestDeadline.class));
+    }
+
+    /**
+     * Gets the timeout.
+     *
+     * @return the timeout
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Gets the time left before the deadline.
+     *
+     * @return the remaining time, zero once the deadline has passed
+     */
+    public Duration getRemaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Whether the deadline has passed and the request has been answered with a timeout.
+     *
+     * @return true if expired
+     */
+    public boolean isExpired() {
+        return state.get() == EXPIRED;
+    }
+
+    /**
+     * Registers an action to run when the deadline expires. It is run immediately if the deadline has already
+     * expired, and never if the request completes in time.
+     *
+     * @param action The action
+     */
+    public void onExpiry(Runnable action) {
+        onExpiry.add(action);
+        if (state.get() == EXPIRED) {
+            runExpiryActions();
+        }
+    }
+
+    /**
+     * Fails the given promise with a {@link RequestTimeoutException} if it has not completed when the deadline
+     * expires. Its eventual result is then ignored.
+     *
+     * @param promise The promise
+     * @param <T>     The type of the value
+     * @return a promise bounded by the deadline
+     */
+    public <T> Promise<T> bound(Promise<T> promise) {
+        return promise.transform(upstream -> downstream -> {
+            AtomicBoolean done = new AtomicBoolean();
+            onExpiry(() -> {
+                if (done.compareAndSet(false, true)) {
+                    downstream.error(new RequestTimeoutException(timeout));
+                }
+            });
+            upstream.connect(new Downstream<T>() {
+                @Override
+                public void success(T value) {
+                    if (done.compareAndSet(false, true)) {
+                        downstream.success(value);
+                    }
+                }
+
+                @Override
+                public void error(Throwable throwable) {
+                    if (done.compareAndSet(false, true)) {
+                        downstream.error(throwable);
+                    }
+                }
+
+                @Override
+                public void complete() {
+                    if (done.compareAndSet(false, true)) {
+                        downstream.complete();
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Runs blocking work bounded by the deadline, interrupting the blocking thread if the deadline expires while
+     * the work is running.
+     *
+     * @param factory The blocking work
+     * @param <T>     The type of the value
+     * @return a promise for the value
+     */
+    public <T> Promise<T> blocking(Factory<T> factory) {
+        return bound(Blocking.get(() -> {
+            if (isExpired()) {
+                throw new RequestTimeoutException(timeout);
+            }
+            BlockingCall call = new BlockingCall(Thread.currentThread());
+            onExpiry(call::interrupt);
+            try {
+                return factory.create();
+            } finally {
+                call.finish();
+            }
+        }));
+    }
+
+    /**
+     * Marks the request as answered in time.
+     *
+     * @return true if the deadline had not expired
+     */
+    boolean complete() {
+        if (state.compareAndSet(ACTIVE, COMPLETED)) {
+            onExpiry.clear();
+            return true;
+        }
+        return state.get() == COMPLETED;
+    }
+
+    /**
+     * Expires the deadline and runs the expiry actions.
+     *
+     * @return true if the request had not been answered yet
+     */
+    boolean expire() {
+        if (state.compareAndSet(ACTIVE, EXPIRED)) {
+            runExpiryActions();
+            return true;
+        }
+        return false;
+    }
+
+    private void runExpiryActions() {
+        Runnable action = onExpiry.poll();
+        while (action != null) {
+            action.run();
+            action = onExpiry.poll();
+        }
+    }
+
+    /**
+     * A blocking thread that may be interrupted until its work finishes.
+     */
+    private static final class BlockingCall {
+        private final Thread thread;
+        private boolean running = true;
+
+        BlockingCall(Thread thread) {
+            this.thread = thread;
+        }
+
+        synchronized void interrupt() {
+            if (running) {
+                thread.interrupt();
+            }
+        }
+
+        void finish() {
+            synchronized (this) {
+                running = false;
+            }
+            // do not leak an interrupt that raced with completion into the pooled thread
+            Thread.interrupted();
+        }
+    }
+}
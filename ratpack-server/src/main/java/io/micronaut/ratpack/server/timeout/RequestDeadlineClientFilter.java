@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.timeout;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.ClientFilterChain;
+import io.micronaut.http.filter.HttpClientFilter;
+import io.reactivex.Flowable;
+import org.reactivestreams.Publisher;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds requests made with the Micronaut HTTP client by the remaining time of the current
+ * {@link RequestDeadline}, failing them with a {@link RequestTimeoutException} once it passes.
+ *
+ * <p>The deadline is read when the filter runs, so requests must be made from the handler's execution.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Filter(Filter.MATCH_ALL_PATTERN)
+@Requires(classes = {HttpClientFilter.class, Flowable.class})
+@Requires(property = RequestTimeoutProperties.ENABLED, value = StringUtils.TRUE)
+public class RequestDeadlineClientFilter implements HttpClientFilter {
+
+    @Override
+    public Publisher<? extends HttpResponse<?>> doFilter(MutableHttpRequest<?> request, ClientFilterChain chain) {
+        Optional<RequestDeadline> deadline = RequestDeadline.current();
+        if (!deadline.isPresent()) {
+            return chain.proceed(request);
+        }
+        Duration timeout = deadline.get().getTimeout();
+        long remaining = deadline.get().getRemaining().toNanos();
+        if (remaining <= 0) {
+            return Flowable.error(new RequestTimeoutException(timeout));
+        }
+        return Flowable.fromPublisher(chain.proceed(request))
+                .timeout(remaining, TimeUnit.NANOSECONDS, Flowable.error(new RequestTimeoutException(timeout)));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.timeout;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.core.util.StringUtils;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import ratpack.func.Action;
+import ratpack.handling.Chain;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Installs the {@link RequestTimeoutHandler} and owns the timer wheel shared by all request deadlines.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = RequestTimeoutProperties.ENABLED, value = StringUtils.TRUE)
+public class RequestTimeoutChainAction implements Action<Chain>, Ordered, AutoCloseable {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 50;
+
+    private final HashedWheelTimer timer;
+    private final RequestTimeoutHandler handler;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The timeout configuration
+     * @param routes     The routes with their own timeout
+     */
+    public RequestTimeoutChainAction(RequestTimeoutProperties properties,
+                                     List<RequestTimeoutRouteProperties> routes) {
+        this.timer = new HashedWheelTimer(new DefaultThreadFactory("ratpack-request-timeout", true),
+                properties.getTickDuration().toMillis(), TimeUnit.MILLISECONDS);
+        this.handler = new RequestTimeoutHandler(timer, properties, routes);
+    }
+
+    @Override
+    public void execute(Chain chain) {
+        chain.all(handler);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Stops the timer wheel.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        timer.stop();
+    }
+}
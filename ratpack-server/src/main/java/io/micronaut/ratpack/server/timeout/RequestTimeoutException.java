@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.timeout;
+
+import java.time.Duration;
+
+/**
+ * Signals that work was abandoned because the deadline of its request passed.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class RequestTimeoutException extends RuntimeException {
+
+    private final Duration timeout;
+
+    /**
+     * Default constructor.
+     *
+     * @param timeout The timeout of the request
+     */
+    public RequestTimeoutException(Duration timeout) {
+        super("Request deadline of " + timeout.toMillis() + "ms exceeded");
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets the timeout.
+     *
+     * @return the timeout
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
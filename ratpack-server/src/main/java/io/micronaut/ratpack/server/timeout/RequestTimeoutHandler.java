@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.timeout;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.path.PathBinder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives each request a {@link RequestDeadline} enforced by a shared timer wheel.
+ *
+ * <p>Expiry is handled on the event loop of the request's channel, the same thread its execution sends the
+ * response from, so a request is either answered by its handlers or by the timeout, never both. A timed out
+ * request is answered with a 503 and its connection closed, so a late response from the abandoned execution is
+ * discarded.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class RequestTimeoutHandler implements Handler {
+
+    private final Timer timer;
+    private final Duration defaultTimeout;
+    private final List<Route> routes = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param timer      The timer wheel
+     * @param properties The timeout configuration
+     * @param routes     The routes with their own timeout
+     */
+    public RequestTimeoutHandler(Timer timer,
+                                 RequestTimeoutProperties properties,
+                                 List<RequestTimeoutRouteProperties> routes) {
+        this.timer = timer;
+        this.defaultTimeout = properties.getTimeout();
+        for (RequestTimeoutRouteProperties route : routes) {
+            this.routes.add(new Route(PathBinder.parse(route.getPath(), false), route.getTimeout()));
+        }
+    }
+
+    @Override
+    public void handle(Context ctx) {
+        Duration timeout = timeout(ctx);
+        if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+            ctx.next();
+            return;
+        }
+        Channel channel = ctx.getDirectChannelAccess().getChannel();
+        long timeoutNanos = timeout.toNanos();
+        RequestDeadline deadline = new RequestDeadline(timeout, System.nanoTime() + timeoutNanos);
+        Timeout scheduled = timer.newTimeout(
+                t -> channel.eventLoop().execute(() -> expire(channel, deadline)),
+                timeoutNanos, TimeUnit.NANOSECONDS
+        );
+        ctx.getExecution().add(RequestDeadline.class, deadline);
+        ctx.getResponse().beforeSend(response -> {
+            if (deadline.complete()) {
+                scheduled.cancel();
+            }
+        });
+        ctx.onClose(outcome -> {
+            scheduled.cancel();
+            deadline.complete();
+        });
+        ctx.next();
+    }
+
+    private Duration timeout(Context ctx) {
+        for (Route route : routes) {
+            if (route.binder.bind(ctx.getPathBinding()).isPresent()) {
+                return route.timeout;
+            }
+        }
+        return defaultTimeout;
+    }
+
+    private static void expire(Channel channel, RequestDeadline deadline) {
+        if (!deadline.expire() || !channel.isActive()) {
+            return;
+        }
+        FullHttpResponse response = new DefaultFullHttpResponse(
+                HttpVersion.HTTP_1_1, HttpResponseStatus.SERVICE_UNAVAILABLE, Unpooled.EMPTY_BUFFER);
+        HttpUtil.setContentLength(response, 0);
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        channel.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    /**
+     * A route and its timeout.
+     */
+    private static final class Route {
+        private final PathBinder binder;
+        private final Duration timeout;
+
+        Route(PathBinder binder, Duration timeout) {
+            this.binder = binder;
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.timeout;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for request deadlines.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(RequestTimeoutProperties.PREFIX)
+public class RequestTimeoutProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".request-timeout";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private Duration timeout = Duration.ofSeconds(30);
+    private Duration tickDuration = Duration.ofMillis(100);
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the timeout applied to requests that match no configured route.
+     *
+     * @return the timeout
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the timeout.
+     *
+     * @param timeout the timeout
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets the tickDuration, the resolution of the timer wheel that enforces deadlines.
+     *
+     * @return the tickDuration
+     */
+    public Duration getTickDuration() {
+        return tickDuration;
+    }
+
+    /**
+     * Sets the tickDuration.
+     *
+     * @param tickDuration the tickDuration
+     */
+    public void setTickDuration(Duration tickDuration) {
+        this.tickDuration = tickDuration;
+    }
+}
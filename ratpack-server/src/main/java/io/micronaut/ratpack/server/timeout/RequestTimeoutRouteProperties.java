@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.timeout;
+
+import io.micronaut.context.annotation.EachProperty;
+import io.micronaut.context.annotation.Parameter;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the timeout of a single route, for example
+ * {@code ratpack.server.request-timeout.routes.reports.path}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@EachProperty(RequestTimeoutProperties.PREFIX + ".routes")
+public class RequestTimeoutRouteProperties {
+
+    private final String name;
+    private String path = "";
+    private Duration timeout = Duration.ZERO;
+
+    /**
+     * Default constructor.
+     *
+     * @param name The name of the route
+     */
+    public RequestTimeoutRouteProperties(@Parameter String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the path, a Ratpack path binding matched as a prefix of the request path.
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Sets the path.
+     *
+     * @param path the path
+     */
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Gets the timeout.
+     *
+     * @return the timeout, zero to apply no deadline to the route
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the timeout.
+     *
+     * @param timeout the timeout
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
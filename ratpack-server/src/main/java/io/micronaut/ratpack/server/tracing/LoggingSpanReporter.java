@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.tracing;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default {@link SpanReporter} that logs spans at debug level when no other reporter is registered.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = TracingProperties.ENABLED, value = StringUtils.TRUE)
+@Requires(missingBeans = SpanReporter.class)
+public class LoggingSpanReporter implements SpanReporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoggingSpanReporter.class);
+
+    @Override
+    public void report(Span span) {
+        if (LOG.isDebugEnabled()) {
+            TraceContext context = span.getContext();
+            LOG.debug("{} trace={} span={} parent={} status={} duration={}us", span.getName(),
+                    context.getTraceId(), context.getSpanId(), context.getParentSpanId(), span.getStatusCode(),
+                    TimeUnit.NANOSECONDS.toMicros(span.getDurationNanos()));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.tracing;
+
+/**
+ * A completed server span.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public final class Span {
+
+    private final String name;
+    private final TraceContext context;
+    private final long startEpochMicros;
+    private final long durationNanos;
+    private final int statusCode;
+
+    /**
+     * Default constructor.
+     *
+     * @param name             The span name
+     * @param context          The span context
+     * @param startEpochMicros The start time in microseconds since the epoch
+     * @param durationNanos    The duration in nanoseconds
+     * @param statusCode       The HTTP response status
+     */
+    public Span(String name, TraceContext context, long startEpochMicros, long durationNanos, int statusCode) {
+        this.name = name;
+        this.context = context;
+        this.startEpochMicros = startEpochMicros;
+        this.durationNanos = durationNanos;
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Gets the name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the context.
+     *
+     * @return the context
+     */
+    public TraceContext getContext() {
+        return context;
+    }
+
+    /**
+     * Gets the startEpochMicros.
+     *
+     * @return the startEpochMicros
+     */
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    /**
+     * Gets the durationNanos.
+     *
+     * @return the durationNanos
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Gets the statusCode.
+     *
+     * @return the statusCode
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
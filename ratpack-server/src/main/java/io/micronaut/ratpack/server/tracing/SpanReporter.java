@@ -0,0 +1,34 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.tracing;
+
+/**
+ * Receives sampled spans once their request completes. Register a bean to export spans to a tracing backend;
+ * reporters are called on the event loop and should hand spans off rather than doing I/O.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface SpanReporter {
+
+    /**
+     * Reports a completed span.
+     *
+     * @param span The span
+     */
+    void report(Span span);
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.tracing;
+
+import ratpack.exec.Execution;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An immutable W3C trace context, stored in the Ratpack {@link Execution} of a traced request.
+ *
+ * <p>Micronaut beans called from a handler run in the same execution and can read it with {@link #current()}.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ * @see <a href="https://www.w3.org/TR/trace-context/">W3C Trace Context</a>
+ */
+public final class TraceContext {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final int LENGTH = 55;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long traceIdHigh;
+    private final long traceIdLow;
+    private final long spanId;
+    private final long parentSpanId;
+    private final boolean sampled;
+
+    private TraceContext(long traceIdHigh, long traceIdLow, long spanId, long parentSpanId, boolean sampled) {
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Starts a new trace.
+     *
+     * @param sampled Whether the trace is sampled
+     * @return a root context
+     */
+    public static TraceContext root(boolean sampled) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new TraceContext(random.nextLong(), nonZero(random), nonZero(random), 0, sampled);
+    }
+
+    /**
+     * Parses a {@code traceparent} header.
+     *
+     * @param traceparent The header value
+     * @return the context, or null if the value is missing or malformed
+     */
+    public static TraceContext parse(CharSequence traceparent) {
+        if (traceparent == null || traceparent.length() < LENGTH
+                || traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-'
+                || (traceparent.length() > LENGTH && traceparent.charAt(LENGTH) != '-')) {
+            return null;
+        }
+        long version = hex(traceparent, 0, 2);
+        long traceIdHigh = hex(traceparent, 3, 19);
+        long traceIdLow = hex(traceparent, 19, 35);
+        long spanId = hex(traceparent, 36, 52);
+        long flags = hex(traceparent, 53, 55);
+        if (version < 0 || version == 0xff || flags < 0
+                || traceIdHigh == -1 && !isHex(traceparent, 3, 19)
+                || traceIdLow == -1 && !isHex(traceparent, 19, 35)
+                || spanId == -1 && !isHex(traceparent, 36, 52)
+                || (traceIdHigh == 0 && traceIdLow == 0) || spanId == 0) {
+            return null;
+        }
+        return new TraceContext(traceIdHigh, traceIdLow, spanId, 0, (flags & 1) == 1);
+    }
+
+    /**
+     * Gets the context of the current execution.
+     *
+     * @return the context, empty if there is no execution or the request is not traced
+     */
+    public static Optional<TraceContext> current() {
+        return Execution.currentOpt().flatMap(execution -> execution.maybeGet(TraceContext.class));
+    }
+
+    /**
+     * Creates the context of a child span in the same trace.
+     *
+     * @return the child context
+     */
+    public TraceContext child() {
+        return new TraceContext(traceIdHigh, traceIdLow, nonZero(ThreadLocalRandom.current()), spanId, sampled);
+    }
+
+    /**
+     * Gets the trace id as 32 lowercase hex characters.
+     *
+     * @return the trace id
+     */
+    public String getTraceId() {
+        char[] chars = new char[32];
+        writeHex(chars, 0, traceIdHigh);
+        writeHex(chars, 16, traceIdLow);
+        return new String(chars);
+    }
+
+    /**
+     * Gets the span id as 16 lowercase hex characters.
+     *
+     * @return the span id
+     */
+    public String getSpanId() {
+        char[] chars = new char[16];
+        writeHex(chars, 0, spanId);
+        return new String(chars);
+    }
+
+    /**
+     * Gets the parent span id as 16 lowercase hex characters.
+     *
+     * @return the parent span id, or null for a root span
+     */
+    public String getParentSpanId() {
+        if (parentSpanId == 0) {
+            return null;
+        }
+        char[] chars = new char[16];
+        writeHex(chars, 0, parentSpanId);
+        return new String(chars);
+    }
+
+    /**
+     * Gets the sampled.
+     *
+     * @return the sampled
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * Formats the context as a {@code traceparent} header naming this span as the parent.
+     *
+     * @return the header value
+     */
+    public String toTraceparent() {
+        char[] chars = new char[LENGTH];
+        chars[0] = '0';
+        chars[1] = '0';
+        chars[2] = '-';
+        writeHex(chars, 3, traceIdHigh);
+        writeHex(chars, 19, traceIdLow);
+        chars[35] = '-';
+        writeHex(chars, 36, spanId);
+        chars[52] = '-';
+        chars[53] = '0';
+        chars[54] = sampled ? '1' : '0';
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return toTraceparent();
+    }
+
+    private static long nonZero(ThreadLocalRandom random) {
+        long id = random.nextLong();
+        while (id == 0) {
+            id = random.nextLong();
+        }
+        return id;
+    }
+
+    /**
+     * @return the value of the lowercase hex digits in the range, or -1 if any of them is not a lowercase hex digit
+     */
+    private static long hex(CharSequence value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else {
+                return -1;
+            }
+            result = (result << 4) | digit;
+        }
+        return result;
+    }
+
+    /**
+     * Distinguishes an id of all {@code f} from an invalid one, both of which {@link #hex} reports as -1.
+     */
+    private static boolean isHex(CharSequence value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (value.charAt(i) != 'f') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeHex(char[] chars, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xf)];
+            value >>>= 4;
+        }
+    }
+}
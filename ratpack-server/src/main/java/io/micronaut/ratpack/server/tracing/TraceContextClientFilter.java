@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.tracing;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.ClientFilterChain;
+import io.micronaut.http.filter.HttpClientFilter;
+import org.reactivestreams.Publisher;
+
+/**
+ * Propagates the trace context of the current Ratpack execution to requests made with the Micronaut HTTP client.
+ *
+ * <p>The context is read when the filter runs, so requests must be made from the handler's execution.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Filter(Filter.MATCH_ALL_PATTERN)
+@Requires(classes = HttpClientFilter.class)
+@Requires(property = TracingProperties.ENABLED, value = StringUtils.TRUE)
+public class TraceContextClientFilter implements HttpClientFilter {
+
+    @Override
+    public Publisher<? extends HttpResponse<?>> doFilter(MutableHttpRequest<?> request, ClientFilterChain chain) {
+        TraceContext.current().ifPresent(context ->
+                request.getHeaders().set(TraceContext.TRACEPARENT, context.toTraceparent()));
+        return chain.proceed(request);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.tracing;
+
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.http.Request;
+import ratpack.path.PathBinding;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Continues or starts a trace for each request and reports a server span when the request completes.
+ *
+ * <p>The sampling decision is made once, at the head of the trace: an incoming {@code traceparent} header is
+ * followed, otherwise the request is sampled at the configured rate. A request with neither an incoming context
+ * nor a positive sampling decision is passed on without allocating anything.</p>
+ *
+ * <p>Spans are named after the method and the route that handled the request, such as {@code GET /users/:id},
+ * rather than the raw path, so span names stay bounded however many distinct paths are requested. Requests that
+ * no path binding matched are named after their method alone.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class TracingHandler implements Handler {
+
+    private final double samplingRate;
+    private final SpanReporter reporter;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The tracing configuration
+     * @param reporter   Receives sampled spans
+     */
+    public TracingHandler(TracingProperties properties, SpanReporter reporter) {
+        this.samplingRate = properties.getSamplingRate();
+        this.reporter = reporter;
+    }
+
+    @Override
+    public void handle(Context ctx) {
+        Request request = ctx.getRequest();
+        String traceparent = request.getHeaders().get(TraceContext.TRACEPARENT);
+        TraceContext parent = traceparent == null ? null : TraceContext.parse(traceparent);
+        TraceContext context;
+        if (parent != null) {
+            context = parent.child();
+        } else if (samplingRate > 0 && ThreadLocalRandom.current().nextDouble() < samplingRate) {
+            context = TraceContext.root(true);
+        } else {
+            ctx.next();
+            return;
+        }
+        ctx.getExecution().add(TraceContext.class, context);
+        if (context.isSampled()) {
+            long startNanos = System.nanoTime();
+            long startMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+            ctx.onClose(outcome -> reporter.report(new Span(
+                    name(ctx, request),
+                    context,
+                    startMicros,
+                    System.nanoTime() - startNanos,
+                    outcome.getResponse().getStatus().getCode()
+            )));
+        }
+        ctx.next();
+    }
+
+    private static String name(Context ctx, Request request) {
+        String method = request.getMethod().getName();
+        String route = ctx.maybeGet(PathBinding.class).map(PathBinding::getDescription).orElse("");
+        return route.isEmpty() ? method : method + " /" + route;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.tracing;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+/**
+ * Configuration for W3C trace context propagation and span reporting.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(TracingProperties.PREFIX)
+public class TracingProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".tracing";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private double samplingRate = 0.1;
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the samplingRate, the fraction of requests without an incoming sampling decision that are traced.
+     *
+     * @return the samplingRate
+     */
+    public double getSamplingRate() {
+        return samplingRate;
+    }
+
+    /**
+     * Sets the samplingRate.
+     *
+     * @param samplingRate the samplingRate
+     */
+    public void setSamplingRate(double samplingRate) {
+        this.samplingRate = samplingRate;
+    }
+}
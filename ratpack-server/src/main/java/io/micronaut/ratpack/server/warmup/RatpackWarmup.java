@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.warmup;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays synthetic requests through the real server before it is reported as started, so the hot paths are
+ * compiled before production traffic arrives.
+ *
+ * <p>Requests come from {@code ratpack.server.warmup.requests} and from the optional samples file. They are sent
+ * to the server in passes until latency stabilizes, the maximum number of passes is reached or the maximum
+ * duration elapses, whichever comes first. The connect and read timeouts of every request are bounded by the time
+ * left, so a hung handler cannot hold up startup beyond the maximum duration.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(property = WarmupProperties.ENABLED, value = StringUtils.TRUE)
+public class RatpackWarmup {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RatpackWarmup.class);
+    private static final int WINDOW = 5;
+
+    private final WarmupProperties properties;
+    private final List<WarmupRequestProperties> requests;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The warmup configuration
+     * @param requests   The configured warmup requests
+     */
+    public RatpackWarmup(WarmupProperties properties, List<WarmupRequestProperties> requests) {
+        this.properties = properties;
+        this.requests = requests;
+    }
+
+    /**
+     * Runs the warmup against a started server.
+     *
+     * @param baseUri The base URI of the server; relative request URIs are resolved against it
+     * @return the result
+     * @throws IOException if the samples file cannot be read
+     */
+    public WarmupResult run(URI baseUri) throws IOException {
+        URI base = baseUri.getPath().endsWith("/") ? baseUri : URI.create(baseUri.toString() + '/');
+        List<WarmupRequestProperties> all = new ArrayList<>(requests);
+        all.addAll(samples());
+        if (all.isEmpty()) {
+            return new WarmupResult(0, 0, false, Duration.ZERO, Duration.ZERO);
+        }
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+        List<Long> passes = new ArrayList<>();
+        int failures = 0;
+        boolean stable = false;
+        while (passes.size() < properties.getMaxIterations() && System.nanoTime() < deadline) {
+            long passStart = System.nanoTime();
+            boolean complete = true;
+            for (WarmupRequestProperties request : all) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    complete = false;
+                    break;
+                }
+                if (!send(base, request, remaining)) {
+                    failures++;
+                }
+            }
+            if (!complete) {
+                break;
+            }
+            passes.add(System.nanoTime() - passStart);
+            if (passes.size() >= properties.getMinIterations()
+                    && isStable(passes, WINDOW, properties.getStableThreshold())) {
+                stable = true;
+                break;
+            }
+        }
+        return new WarmupResult(passes.size(), failures, stable, Duration.ofNanos(System.nanoTime() - start),
+                Duration.ofNanos(passes.isEmpty() ? 0 : passes.get(passes.size() - 1)));
+    }
+
+    /**
+     * Whether the mean of the last window of passes is within the threshold of the mean of the window before.
+     *
+     * @param passes    The duration of each pass
+     * @param window    The number of passes per window
+     * @param threshold The largest relative change considered stable
+     * @return true if latency is stable
+     */
+    static boolean isStable(List<Long> passes, int window, double threshold) {
+        int size = passes.size();
+        if (size < window * 2) {
+            return false;
+        }
+        double previous = mean(passes, size - window * 2, size - window);
+        double current = mean(passes, size - window, size);
+        return previous > 0 && Math.abs(current - previous) / previous <= threshold;
+    }
+
+    private static double mean(List<Long> values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values.get(i);
+        }
+        return sum / (to - from);
+    }
+
+    private List<WarmupRequestProperties> samples() throws IOException {
+        List<WarmupRequestProperties> samples = new ArrayList<>();
+        if (properties.getSamplesFile() == null) {
+            return samples;
+        }
+        int line = 0;
+        for (String sample : Files.readAllLines(Paths.get(properties.getSamplesFile()), StandardCharsets.UTF_8)) {
+            String trimmed = sample.trim();
+            line++;
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] parts = trimmed.split("\\s+", 2);
+            WarmupRequestProperties request = new WarmupRequestProperties("sample-" + line);
+            if (parts.length == 2) {
+                request.setMethod(parts[0]);
+                request.setUri(parts[1]);
+            } else {
+                request.setUri(parts[0]);
+            }
+            samples.add(request);
+        }
+        return samples;
+    }
+
+    private boolean send(URI baseUri, WarmupRequestProperties request, long remainingNanos) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) baseUri.resolve(request.getUri()).toURL().openConnection();
+            int timeout = (int) Math.min(Integer.MAX_VALUE, Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos)));
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+            connection.setRequestMethod(request.getMethod().toUpperCase());
+            if (request.getContentType() != null) {
+                connection.setRequestProperty("Content-Type", request.getContentType());
+            }
+            if (request.getBody() != null) {
+                connection.setDoOutput(true);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(request.getBody().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            try (InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+                drain(in);
+            }
+            return status < 500;
+        } catch (IOException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Warmup request {} {} failed: {}", request.getMethod(), request.getUri(), e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) {
+            return;
+        }
+        byte[] buffer = new byte[8192];
+        while (in.read(buffer) >= 0) {
+            // discard; reading to the end lets the connection be reused
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.warmup;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.ratpack.server.RatpackServerProperties;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * Configuration for the warmup run between binding the server and publishing its startup event.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@ConfigurationProperties(WarmupProperties.PREFIX)
+public class WarmupProperties {
+
+    public static final String PREFIX = RatpackServerProperties.PREFIX + ".warmup";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private int minIterations = 10;
+    private int maxIterations = 1000;
+    private double stableThreshold = 0.05;
+    private Duration maxDuration = Duration.ofSeconds(60);
+    private String samplesFile = null;
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the minIterations, the passes over the warmup requests made before latency is checked for stability.
+     *
+     * @return the minIterations
+     */
+    public int getMinIterations() {
+        return minIterations;
+    }
+
+    /**
+     * Sets the minIterations.
+     *
+     * @param minIterations the minIterations
+     */
+    public void setMinIterations(int minIterations) {
+        this.minIterations = minIterations;
+    }
+
+    /**
+     * Gets the maxIterations.
+     *
+     * @return the maxIterations
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Sets the maxIterations.
+     *
+     * @param maxIterations the maxIterations
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Gets the stableThreshold, the relative change in mean pass latency between consecutive windows below which
+     * latency is considered stable.
+     *
+     * @return the stableThreshold
+     */
+    public double getStableThreshold() {
+        return stableThreshold;
+    }
+
+    /**
+     * Sets the stableThreshold.
+     *
+     * @param stableThreshold the stableThreshold
+     */
+    public void setStableThreshold(double stableThreshold) {
+        this.stableThreshold = stableThreshold;
+    }
+
+    /**
+     * Gets the maxDuration.
+     *
+     * @return the maxDuration
+     */
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    /**
+     * Sets the maxDuration.
+     *
+     * @param maxDuration the maxDuration
+     */
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Gets the samplesFile, a file of recorded requests with one {@code METHOD URI} per line.
+     *
+     * @return the samplesFile
+     */
+    @Nullable
+    public String getSamplesFile() {
+        return samplesFile;
+    }
+
+    /**
+     * Sets the samplesFile.
+     *
+     * @param samplesFile the samplesFile
+     */
+    public void setSamplesFile(@Nullable String samplesFile) {
+        this.samplesFile = samplesFile;
+    }
+}
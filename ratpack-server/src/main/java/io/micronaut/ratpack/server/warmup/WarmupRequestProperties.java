@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.warmup;
+
+import io.micronaut.context.annotation.EachProperty;
+import io.micronaut.context.annotation.Parameter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Configuration for a single warmup request, for example {@code ratpack.server.warmup.requests.products.uri}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@EachProperty(WarmupProperties.PREFIX + ".requests")
+public class WarmupRequestProperties {
+
+    private final String name;
+    private String method = "GET";
+    private String uri = "/";
+    private String body = null;
+    private String contentType = null;
+
+    /**
+     * Default constructor.
+     *
+     * @param name The name of the request
+     */
+    public WarmupRequestProperties(@Parameter String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the method.
+     *
+     * @return the method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Sets the method.
+     *
+     * @param method the method
+     */
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    /**
+     * Gets the uri, including the context path.
+     *
+     * @return the uri
+     */
+    public String getUri() {
+        return uri;
+    }
+
+    /**
+     * Sets the uri.
+     *
+     * @param uri the uri
+     */
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    /**
+     * Gets the body.
+     *
+     * @return the body
+     */
+    @Nullable
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Sets the body.
+     *
+     * @param body the body
+     */
+    public void setBody(@Nullable String body) {
+        this.body = body;
+    }
+
+    /**
+     * Gets the contentType.
+     *
+     * @return the contentType
+     */
+    @Nullable
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Sets the contentType.
+     *
+     * @param contentType the contentType
+     */
+    public void setContentType(@Nullable String contentType) {
+        this.contentType = contentType;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.warmup;
+
+import java.time.Duration;
+
+/**
+ * The outcome of a warmup run.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public final class WarmupResult {
+
+    private final int iterations;
+    private final int failures;
+    private final boolean stable;
+    private final Duration duration;
+    private final Duration lastIteration;
+
+    /**
+     * Default constructor.
+     *
+     * @param iterations    The passes made over the warmup requests
+     * @param failures      The requests that failed or returned a server error
+     * @param stable        Whether warmup stopped because latency stabilized
+     * @param duration      How long warmup took
+     * @param lastIteration How long the last pass took
+     */
+    public WarmupResult(int iterations, int failures, boolean stable, Duration duration, Duration lastIteration) {
+        this.iterations = iterations;
+        this.failures = failures;
+        this.stable = stable;
+        this.duration = duration;
+        this.lastIteration = lastIteration;
+    }
+
+    /**
+     * Gets the iterations.
+     *
+     * @return the iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Gets the failures.
+     *
+     * @return the failures
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    /**
+     * Gets the stable.
+     *
+     * @return the stable
+     */
+    public boolean isStable() {
+        return stable;
+    }
+
+    /**
+     * Gets the duration.
+     *
+     * @return the duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the lastIteration.
+     *
+     * @return the lastIteration
+     */
+    public Duration getLastIteration() {
+        return lastIteration;
+    }
+
+    @Override
+    public String toString() {
+        return "Warmup " + (stable ? "stabilized" : "stopped") + " after " + iterations + " iterations in "
+                + duration.toMillis() + "ms (last iteration " + lastIteration.toNanos() / 1_000 + "us, "
+                + failures + " failed requests)";
+    }
+}
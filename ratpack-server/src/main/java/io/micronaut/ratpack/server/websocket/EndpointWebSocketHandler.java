@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.websocket;
+
+import io.netty.channel.Channel;
+import ratpack.websocket.WebSocket;
+import ratpack.websocket.WebSocketClose;
+import ratpack.websocket.WebSocketHandler;
+import ratpack.websocket.WebSocketMessage;
+
+/**
+ * Adapts a {@link WebSocketEndpoint} to a Ratpack {@link WebSocketHandler} for a single connection.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+final class EndpointWebSocketHandler implements WebSocketHandler<WebSocketSession> {
+
+    private final WebSocketEndpoint endpoint;
+    private final Channel channel;
+    private final WebSocketBroadcaster broadcaster;
+
+    /**
+     * @param endpoint    The endpoint
+     * @param channel     The channel of the connection
+     * @param broadcaster The broadcaster that manages topic subscriptions
+     */
+    EndpointWebSocketHandler(WebSocketEndpoint endpoint, Channel channel, WebSocketBroadcaster broadcaster) {
+        this.endpoint = endpoint;
+        this.channel = channel;
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public WebSocketSession onOpen(WebSocket webSocket) {
+        WebSocketSession session = new WebSocketSession(webSocket, channel, broadcaster);
+        endpoint.onOpen(session);
+        return session;
+    }
+
+    @Override
+    public void onClose(WebSocketClose<WebSocketSession> close) {
+        WebSocketSession session = close.getOpenResult();
+        session.unsubscribeAll();
+        endpoint.onClose(session);
+    }
+
+    @Override
+    public void onMessage(WebSocketMessage<WebSocketSession> message) {
+        endpoint.onMessage(message.getOpenResult(), message.getText());
+    }
+}
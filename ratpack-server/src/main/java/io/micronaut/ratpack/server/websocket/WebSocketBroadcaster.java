@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.websocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+
+import javax.inject.Singleton;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Broadcasts messages to the {@link WebSocketSession sessions} subscribed to a topic.
+ *
+ * <p>A message is encoded once into a single buffer; each session gets a frame over a retained duplicate of it,
+ * so broadcasting to thousands of sessions costs no more than one copy of the payload. Sessions whose channel is
+ * not writable, because the client is reading slower than messages are published, skip the message instead of
+ * queueing it in memory.</p>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+public class WebSocketBroadcaster {
+
+    private final Map<String, Set<WebSocketSession>> topics = new ConcurrentHashMap<>();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Broadcasts a text message.
+     *
+     * @param topic The topic
+     * @param text  The message
+     * @return the number of sessions the message was written to
+     */
+    public int broadcast(String topic, CharSequence text) {
+        Set<WebSocketSession> sessions = topics.get(topic);
+        if (sessions == null || sessions.isEmpty()) {
+            return 0;
+        }
+        return broadcast(sessions, ByteBufUtil.writeUtf8(ByteBufAllocator.DEFAULT, text), TextWebSocketFrame::new);
+    }
+
+    /**
+     * Broadcasts a binary message.
+     *
+     * @param topic   The topic
+     * @param payload The message, which is released once written
+     * @return the number of sessions the message was written to
+     */
+    public int broadcastBinary(String topic, ByteBuf payload) {
+        Set<WebSocketSession> sessions = topics.get(topic);
+        if (sessions == null || sessions.isEmpty()) {
+            payload.release();
+            return 0;
+        }
+        return broadcast(sessions, payload, BinaryWebSocketFrame::new);
+    }
+
+    /**
+     * Gets the number of sessions subscribed to a topic.
+     *
+     * @param topic The topic
+     * @return the subscriber count
+     */
+    public int getSubscribers(String topic) {
+        Set<WebSocketSession> sessions = topics.get(topic);
+        return sessions == null ? 0 : sessions.size();
+    }
+
+    /**
+     * Gets the topics with subscribers.
+     *
+     * @return the topics
+     */
+    public Set<String> getTopics() {
+        return Collections.unmodifiableSet(topics.keySet());
+    }
+
+    /**
+     * Gets the number of broadcast messages written to sessions.
+     *
+     * @return the delivered count
+     */
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    /**
+     * Gets the number of broadcast messages skipped for sessions that were not writable.
+     *
+     * @return the dropped count
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @param topic   The topic
+     * @param session The session to add
+     */
+    void add(String topic, WebSocketSession session) {
+        // added inside compute, so a concurrent removal of the last session cannot drop the set in between
+        topics.compute(topic, (t, sessions) -> {
+            Set<WebSocketSession> updated = sessions == null ? ConcurrentHashMap.newKeySet() : sessions;
+            updated.add(session);
+            return updated;
+        });
+    }
+
+    /**
+     * @param topic   The topic
+     * @param session The session to remove
+     */
+    void remove(String topic, WebSocketSession session) {
+        topics.computeIfPresent(topic, (t, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    private int broadcast(Set<WebSocketSession> sessions, ByteBuf payload, Function<ByteBuf, WebSocketFrame> frame) {
+        int written = 0;
+        try {
+            for (WebSocketSession session : sessions) {
+                Channel channel = session.getChannel();
+                if (!channel.isActive()) {
+                    continue;
+                }
+                if (!channel.isWritable()) {
+                    dropped.increment();
+                    continue;
+                }
+                channel.writeAndFlush(frame.apply(payload.retainedDuplicate()), channel.voidPromise());
+                written++;
+            }
+        } finally {
+            payload.release();
+        }
+        delivered.add(written);
+        return written;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.websocket;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.order.Ordered;
+import ratpack.func.Action;
+import ratpack.handling.Chain;
+import ratpack.websocket.WebSockets;
+
+import javax.inject.Singleton;
+import java.util.List;
+
+/**
+ * Mounts every {@link WebSocketEndpoint} bean into the Ratpack chain.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(beans = WebSocketEndpoint.class)
+public class WebSocketChainAction implements Action<Chain>, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 1000;
+
+    private final List<WebSocketEndpoint> endpoints;
+    private final WebSocketBroadcaster broadcaster;
+
+    /**
+     * Default constructor.
+     *
+     * @param endpoints   The endpoints
+     * @param broadcaster The broadcaster
+     */
+    public WebSocketChainAction(List<WebSocketEndpoint> endpoints, WebSocketBroadcaster broadcaster) {
+        this.endpoints = endpoints;
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void execute(Chain chain) {
+        for (WebSocketEndpoint endpoint : endpoints) {
+            chain.get(endpoint.getPath(), ctx -> WebSockets.websocket(ctx, new EndpointWebSocketHandler(
+                    endpoint, ctx.getDirectChannelAccess().getChannel(), broadcaster)));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
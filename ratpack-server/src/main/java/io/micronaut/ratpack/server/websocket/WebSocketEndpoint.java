@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.websocket;
+
+/**
+ * A WebSocket endpoint defined as a Micronaut bean. Every endpoint bean is mounted into the Ratpack chain at its
+ * {@link #getPath() path}.
+ *
+ * <pre>
+ * &#64;Singleton
+ * public class PricesEndpoint implements WebSocketEndpoint {
+ *     public String getPath() {
+ *         return "prices";
+ *     }
+ *
+ *     public void onOpen(WebSocketSession session) {
+ *         session.subscribe("prices");
+ *     }
+ * }
+ * </pre>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public interface WebSocketEndpoint {
+
+    /**
+     * Gets the path the endpoint is mounted at, relative to the context path.
+     *
+     * @return the path
+     */
+    String getPath();
+
+    /**
+     * Called when a client has connected.
+     *
+     * @param session The session
+     */
+    default void onOpen(WebSocketSession session) {
+    }
+
+    /**
+     * Called for each text message from the client.
+     *
+     * @param session The session
+     * @param text    The message
+     */
+    default void onMessage(WebSocketSession session, String text) {
+    }
+
+    /**
+     * Called when the connection has closed. The session has already been unsubscribed from all topics.
+     *
+     * @param session The session
+     */
+    default void onClose(WebSocketSession session) {
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.websocket;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+
+/**
+ * Binds the broadcast counters to Micrometer when it is on the classpath.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+@Requires(beans = WebSocketChainAction.class)
+public class WebSocketMeterBinder implements MeterBinder {
+
+    private final WebSocketBroadcaster broadcaster;
+
+    /**
+     * Default constructor.
+     *
+     * @param broadcaster The broadcaster
+     */
+    public WebSocketMeterBinder(WebSocketBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ratpack.server.websocket.delivered", broadcaster, WebSocketBroadcaster::getDelivered)
+                .description("Broadcast messages written to WebSocket sessions")
+                .register(registry);
+        FunctionCounter.builder("ratpack.server.websocket.dropped", broadcaster, WebSocketBroadcaster::getDropped)
+                .description("Broadcast messages skipped for sessions that were not writable")
+                .register(registry);
+    }
+}
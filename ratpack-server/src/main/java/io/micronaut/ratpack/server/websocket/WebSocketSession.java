@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.server.websocket;
+
+import io.netty.channel.Channel;
+import ratpack.websocket.WebSocket;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An open WebSocket connection to a {@link WebSocketEndpoint}.
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public final class WebSocketSession {
+
+    private final WebSocket webSocket;
+    private final Channel channel;
+    private final WebSocketBroadcaster broadcaster;
+    private final Set<String> topics = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param webSocket   The Ratpack WebSocket
+     * @param channel     The channel of the connection
+     * @param broadcaster The broadcaster that manages topic subscriptions
+     */
+    WebSocketSession(WebSocket webSocket, Channel channel, WebSocketBroadcaster broadcaster) {
+        this.webSocket = webSocket;
+        this.channel = channel;
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Sends a text message to this client only.
+     *
+     * @param text The message
+     */
+    public void send(String text) {
+        webSocket.send(text);
+    }
+
+    /**
+     * Closes the connection.
+     */
+    public void close() {
+        webSocket.close();
+    }
+
+    /**
+     * Subscribes the session to broadcasts on a topic.
+     *
+     * @param topic The topic
+     */
+    public void subscribe(String topic) {
+        if (topics.add(topic)) {
+            broadcaster.add(topic, this);
+        }
+    }
+
+    /**
+     * Unsubscribes the session from a topic.
+     *
+     * @param topic The topic
+     */
+    public void unsubscribe(String topic) {
+        if (topics.remove(topic)) {
+            broadcaster.remove(topic, this);
+        }
+    }
+
+    /**
+     * Gets the topics.
+     *
+     * @return the topics the session is subscribed to
+     */
+    public Set<String> getTopics() {
+        return Collections.unmodifiableSet(topics);
+    }
+
+    /**
+     * Gets the channel.
+     *
+     * @return the channel
+     */
+    Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Removes every subscription of a closed session.
+     */
+    void unsubscribeAll() {
+        for (String topic : topics) {
+            unsubscribe(topic);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.micronaut.ratpack.server
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.runtime.server.EmbeddedServer
+import ratpack.groovy.test.embed.GroovyEmbeddedApp
+import ratpack.server.RatpackServer
+import ratpack.test.embed.EmbeddedApp
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class SinglePortSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer server = ApplicationContext.run(EmbeddedServer, [
+            'ratpack.server.single-port': true,
+            'spec.name'                 : 'SinglePortSpec'
+    ], "test")
+
+    def "micronaut routes are served from the ratpack port when no ratpack handler matches"() {
+        given:
+        def rpServer = server.applicationContext.getBean(RatpackServer)
+        def rpClient = GroovyEmbeddedApp.from(EmbeddedApp.fromServer(rpServer)).httpClient
+
+        expect:
+        rpClient.get("/ctx/test1").body.text == "test1"
+        rpClient.get("/ctx/greet/ratpack").body.text == "hello ratpack"
+        rpClient.get("/ctx/missing").statusCode == 404
+    }
+
+    @Controller
+    @Requires(property = 'spec.name', value = 'SinglePortSpec')
+    protected static class GreetingController {
+
+        @Get("greet/{name}")
+        String greet(String name) {
+            "hello $name"
+        }
+    }
+}
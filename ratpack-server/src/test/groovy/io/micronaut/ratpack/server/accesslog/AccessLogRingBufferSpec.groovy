@@ -0,0 +1,68 @@
+package io.micronaut.ratpack.server.accesslog
+
+import spock.lang.Specification
+
+class AccessLogRingBufferSpec extends Specification {
+
+    def "rounds the capacity up to a power of two"() {
+        given:
+        def ring = new AccessLogRingBuffer(3)
+
+        expect:
+        4.times { assert ring.claim() == it }
+        ring.claim() == -1
+        ring.dropped == 1
+    }
+
+    def "drains published records in order and frees their slots"() {
+        given:
+        def ring = new AccessLogRingBuffer(2)
+        def uris = []
+
+        when:
+        publish(ring, "/a")
+        publish(ring, "/b")
+
+        then:
+        ring.claim() == -1
+
+        when:
+        def drained = ring.drain({ uris << it.uri }, 10)
+
+        then:
+        drained == 2
+        uris == ["/a", "/b"]
+
+        when:
+        publish(ring, "/c")
+        ring.drain({ uris << it.uri }, 10)
+
+        then:
+        uris == ["/a", "/b", "/c"]
+    }
+
+    def "does not drain past a claimed but unpublished slot"() {
+        given:
+        def ring = new AccessLogRingBuffer(4)
+        def uris = []
+        def pending = ring.claim()
+        publish(ring, "/b")
+
+        expect:
+        ring.drain({ uris << it.uri }, 10) == 0
+
+        when:
+        ring.slot(pending).uri = "/a"
+        ring.publish(pending)
+
+        then:
+        ring.drain({ uris << it.uri }, 10) == 2
+        uris == ["/a", "/b"]
+    }
+
+    private static void publish(AccessLogRingBuffer ring, String uri) {
+        long sequence = ring.claim()
+        ring.slot(sequence).uri = uri
+        ring.publish(sequence)
+    }
+}
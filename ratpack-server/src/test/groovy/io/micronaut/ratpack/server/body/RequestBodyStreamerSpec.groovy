@@ -0,0 +1,76 @@
+package io.micronaut.ratpack.server.body
+
+import ratpack.test.embed.EmbeddedApp
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class RequestBodyStreamerSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    def "streams bodies larger than the max content length to disk"() {
+        given:
+        def properties = new StreamingBodyProperties(tempDirectory: tempDir.toString())
+        def streamer = new RequestBodyStreamer(properties)
+        def body = "x" * 100_000
+        def app = EmbeddedApp.of { spec ->
+            spec.serverConfig { it.maxContentLength(1024) }
+            spec.handlers { it.all { ctx -> streamer.toTempFile(ctx).then { ctx.render("${Files.size(it)}") } } }
+        }
+
+        when:
+        def response = app.httpClient.request { it.post().body.text(body) }
+
+        then:
+        response.body.text == "100000"
+
+        cleanup:
+        app.close()
+    }
+
+    def "fails bodies larger than the streaming limit"() {
+        given:
+        def properties = new StreamingBodyProperties(tempDirectory: tempDir.toString(), maxContentLength: 10)
+        def streamer = new RequestBodyStreamer(properties)
+        def app = EmbeddedApp.of { spec ->
+            spec.handlers { it.all { ctx -> streamer.toTempFile(ctx).then { ctx.render("stored") } } }
+        }
+
+        when:
+        def response = app.httpClient.request { it.post().body.text("x" * 100) }
+
+        then:
+        response.statusCode == 413
+
+        cleanup:
+        app.close()
+    }
+
+    def "bounds streamed bodies by default"() {
+        expect:
+        new StreamingBodyProperties().maxContentLength == 100L * 1024 * 1024
+    }
+
+    def "streams bodies of any size when the limit is negative"() {
+        given:
+        def properties = new StreamingBodyProperties(tempDirectory: tempDir.toString(), maxContentLength: -1)
+        def streamer = new RequestBodyStreamer(properties)
+        def app = EmbeddedApp.of { spec ->
+            spec.serverConfig { it.maxContentLength(16) }
+            spec.handlers { it.all { ctx -> streamer.toTempFile(ctx).then { ctx.render("${Files.size(it)}") } } }
+        }
+
+        when:
+        def response = app.httpClient.request { it.post().body.text("x" * 1000) }
+
+        then:
+        response.body.text == "1000"
+
+        cleanup:
+        app.close()
+    }
+}
@@ -0,0 +1,75 @@
+package io.micronaut.ratpack.server.bulkhead
+
+import ratpack.test.exec.ExecHarness
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.Unroll
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CountDownLatch
+
+class BulkheadSpec extends Specification {
+
+    @AutoCleanup
+    ExecHarness harness = ExecHarness.harness()
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    @Unroll
+    def "#type bulkhead rejects calls once it is full"() {
+        given:
+        def properties = new BulkheadProperties("test")
+        properties.type = type
+        properties.maxConcurrent = 1
+        def bulkhead = new BulkheadRegistry([properties]).get("test")
+        def release = new CountDownLatch(1)
+
+        when:
+        harness.fork().start { bulkhead.blocking { release.await(); "first" }.then {} }
+        conditions.eventually { assert bulkhead.active == 1 }
+        def rejected = harness.yield { bulkhead.blocking { "second" } }
+
+        then:
+        rejected.throwable instanceof BulkheadFullException
+        bulkhead.rejected == 1
+
+        cleanup:
+        release.countDown()
+
+        where:
+        type << BulkheadProperties.Type.values()
+    }
+
+    @Unroll
+    def "#type bulkhead falls back to the shared pool when configured"() {
+        given:
+        def properties = new BulkheadProperties("test")
+        properties.type = type
+        properties.maxConcurrent = 1
+        properties.rejectionPolicy = BulkheadProperties.RejectionPolicy.SHARED_POOL
+        def bulkhead = new BulkheadRegistry([properties]).get("test")
+        def release = new CountDownLatch(1)
+
+        when:
+        harness.fork().start { bulkhead.blocking { release.await(); "first" }.then {} }
+        conditions.eventually { assert bulkhead.active == 1 }
+
+        then:
+        harness.yield { bulkhead.blocking { "second" } }.valueOrThrow == "second"
+        bulkhead.rejected == 1
+
+        cleanup:
+        release.countDown()
+
+        where:
+        type << BulkheadProperties.Type.values()
+    }
+
+    def "fails fast for unknown bulkheads"() {
+        when:
+        new BulkheadRegistry([]).get("missing")
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,80 @@
+package io.micronaut.ratpack.server.cache
+
+import io.micronaut.context.ApplicationContext
+import ratpack.exec.Promise
+import ratpack.exec.util.ParallelBatch
+import ratpack.test.exec.ExecHarness
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import javax.inject.Singleton
+import java.util.concurrent.atomic.AtomicInteger
+
+class PromiseCacheInterceptorSpec extends Specification {
+
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run(['micronaut.caches.products.maximum-size': 10])
+
+    @AutoCleanup
+    ExecHarness harness = ExecHarness.harness()
+
+    ProductService service = context.getBean(ProductService)
+
+    def "caches the resolved value"() {
+        when:
+        def first = harness.yield { service.find("a") }.valueOrThrow
+        def second = harness.yield { service.find("a") }.valueOrThrow
+
+        then:
+        first == "product a"
+        second == "product a"
+        service.calls.get() == 1
+    }
+
+    def "does not cache errors"() {
+        when:
+        def failed = harness.yield { service.find("fail") }
+
+        then:
+        failed.error
+        service.calls.get() == 1
+
+        when:
+        harness.yield { service.find("fail") }
+
+        then:
+        service.calls.get() == 2
+    }
+
+    def "shares one invocation between concurrent misses"() {
+        when:
+        def result = harness.yield {
+            ParallelBatch.of(service.find("a"), service.find("a"), service.find("a")).yield()
+        }.valueOrThrow
+
+        then:
+        result == ["product a"] * 3
+        service.calls.get() == 1
+    }
+
+    @Singleton
+    static class ProductService {
+
+        final AtomicInteger calls = new AtomicInteger()
+
+        @PromiseCacheable("products")
+        Promise<String> find(String id) {
+            calls.incrementAndGet()
+            Promise.async { downstream ->
+                Thread.start {
+                    Thread.sleep(50)
+                    if (id == "fail") {
+                        downstream.error(new IllegalStateException(id))
+                    } else {
+                        downstream.success("product " + id)
+                    }
+                }
+            }
+        }
+    }
+}
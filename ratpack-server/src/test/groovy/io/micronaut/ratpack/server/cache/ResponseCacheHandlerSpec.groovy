@@ -0,0 +1,113 @@
+package io.micronaut.ratpack.server.cache
+
+import ratpack.test.embed.EmbeddedApp
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.charset.StandardCharsets
+
+class ResponseCacheHandlerSpec extends Specification {
+
+    def cache = new ResponseCache(1024 * 1024, { System.currentTimeMillis() })
+    def conditions = new PollingConditions(timeout: 5)
+
+    @AutoCleanup
+    EmbeddedApp app = EmbeddedApp.fromHandlers { chain ->
+        chain.all(new ResponseCacheHandler(cache, new ResponseCacheProperties(), []))
+        chain.get("a") { it.render("a") }
+        chain.get("b") { it.render("b") }
+        chain.get("empty") { it.response.status(204).send() }
+        chain.post("probe") { ctx ->
+            ctx.render(String.valueOf(ctx.directChannelAccess.channel.pipeline().get(ResponseCaptureHandler.NAME) != null))
+        }
+    }
+
+    def "caches each response of a keep-alive connection under its own request"() {
+        given:
+        def socket = new Socket(app.address.host, app.address.port)
+        socket.soTimeout = 5000
+
+        when:
+        def a = exchange(socket, "GET", "/a")
+        def b = exchange(socket, "GET", "/b")
+
+        then:
+        a == "a"
+        b == "b"
+        conditions.eventually {
+            assert text(cache.get("GET /a", { null })) == "a"
+            assert text(cache.get("GET /b", { null })) == "b"
+        }
+        exchange(socket, "POST", "/probe") == "false"
+
+        when:
+        def hits = cache.hits
+        def cachedA = exchange(socket, "GET", "/a")
+        def cachedB = exchange(socket, "GET", "/b")
+
+        then:
+        cachedA == "a"
+        cachedB == "b"
+        cache.hits == hits + 2
+
+        cleanup:
+        socket?.close()
+    }
+
+    def "does not leave the capture behind for a response that is not cached"() {
+        given:
+        def socket = new Socket(app.address.host, app.address.port)
+        socket.soTimeout = 5000
+
+        when:
+        exchange(socket, "GET", "/empty")
+
+        then:
+        exchange(socket, "POST", "/probe") == "false"
+        cache.get("GET /empty", { null }) == null
+
+        cleanup:
+        socket?.close()
+    }
+
+    private static String text(CachedResponse response) {
+        if (response == null) {
+            return null
+        }
+        try {
+            response.body.toString(StandardCharsets.UTF_8)
+        } finally {
+            response.body.release()
+        }
+    }
+
+    private static String exchange(Socket socket, String method, String path) {
+        def out = socket.outputStream
+        def length = method == "POST" ? "Content-Length: 0\r\n" : ""
+        out.write("$method $path HTTP/1.1\r\nHost: localhost\r\n$length\r\n".getBytes(StandardCharsets.US_ASCII))
+        out.flush()
+        def input = socket.inputStream
+        def headers = new StringBuilder()
+        while (!headers.toString().endsWith("\r\n\r\n")) {
+            int c = input.read()
+            if (c < 0) {
+                throw new EOFException("connection closed")
+            }
+            headers.append((char) c)
+        }
+        def contentLength = headers.readLines()
+                .find { it.toLowerCase().startsWith("content-length:") }
+                ?.split(":")?.getAt(1)?.trim()?.toInteger() ?: 0
+        def body = new byte[contentLength]
+        int read = 0
+        while (read < contentLength) {
+            int n = input.read(body, read, contentLength - read)
+            if (n < 0) {
+                throw new EOFException("connection closed")
+            }
+            read += n
+        }
+        new String(body, StandardCharsets.UTF_8)
+    }
+}
@@ -0,0 +1,133 @@
+package io.micronaut.ratpack.server.cache
+
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.Unpooled
+import io.netty.handler.codec.http.DefaultHttpHeaders
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class ResponseCacheSpec extends Specification {
+
+    long now = 0
+    ResponseCache cache = new ResponseCache(10, { now })
+
+    def "returns a retained duplicate of the cached body"() {
+        given:
+        def body = buffer("hello")
+        cache.put("GET /a", [] as String[], { null }, response(body, 100))
+
+        when:
+        def hit = cache.get("GET /a", { null })
+
+        then:
+        hit.body.toString(StandardCharsets.UTF_8) == "hello"
+        body.refCnt() == 2
+
+        when:
+        hit.body.release()
+
+        then:
+        body.refCnt() == 1
+        cache.hits == 1
+    }
+
+    def "evicts the least recently used entry when full"() {
+        given:
+        def a = buffer("aaaa")
+        def b = buffer("bbbb")
+        def c = buffer("cccc")
+        cache.put("GET /a", [] as String[], { null }, response(a, 100))
+        cache.put("GET /b", [] as String[], { null }, response(b, 100))
+        cache.get("GET /a", { null }).body.release()
+
+        when:
+        cache.put("GET /c", [] as String[], { null }, response(c, 100))
+
+        then:
+        cache.get("GET /b", { null }) == null
+        b.refCnt() == 0
+        cache.size == 8
+        cache.evictions == 1
+    }
+
+    def "keys variants by the headers named in vary"() {
+        given:
+        String[] vary = ["accept-language"]
+        cache.put("GET /a", vary, { "en" }, response(buffer("en"), 100))
+        cache.put("GET /a", vary, { "fr" }, response(buffer("fr"), 100))
+
+        expect:
+        cache.get("GET /a", { "en" }).body.toString(StandardCharsets.UTF_8) == "en"
+        cache.get("GET /a", { "fr" }).body.toString(StandardCharsets.UTF_8) == "fr"
+        cache.get("GET /a", { "de" }) == null
+    }
+
+    def "expires entries after their ttl"() {
+        given:
+        def body = buffer("hello")
+        cache.put("GET /a", [] as String[], { null }, response(body, 100))
+
+        when:
+        now = 100
+
+        then:
+        cache.get("GET /a", { null }) == null
+        body.refCnt() == 0
+        cache.size == 0
+    }
+
+    def "evicts expired entries before live ones regardless of recency"() {
+        given:
+        def live = buffer("aaaa")
+        def expired = buffer("bbbb")
+        cache.put("GET /a", [] as String[], { null }, response(live, 100))
+        cache.put("GET /b", [] as String[], { null }, response(expired, 10))
+
+        when:
+        now = 50
+        cache.put("GET /c", [] as String[], { null }, response(buffer("cccc"), 100))
+
+        then:
+        expired.refCnt() == 0
+        live.refCnt() == 1
+        cache.evictions == 1
+        cache.size == 8
+    }
+
+    def "keeps the size bound and counts across stripes under concurrent use"() {
+        given:
+        def striped = new ResponseCache(64, 8, { now })
+        def pool = Executors.newFixedThreadPool(8)
+        def tasks = (0..<8).collect { thread ->
+            { ->
+                100.times { i ->
+                    def key = "GET /" + ((thread * 100 + i) % 40)
+                    striped.put(key, [] as String[], { null }, response(buffer("xxxx"), 1000))
+                    striped.get(key, { null })?.body?.release()
+                }
+            } as Callable
+        }
+
+        when:
+        pool.invokeAll(tasks).each { it.get() }
+
+        then:
+        striped.size <= 64
+        striped.hits + striped.misses == 800
+
+        cleanup:
+        pool.shutdown()
+        striped.invalidateAll()
+    }
+
+    private CachedResponse response(ByteBuf body, long ttl) {
+        new CachedResponse(200, new DefaultHttpHeaders(), body, now, now + ttl)
+    }
+
+    private static ByteBuf buffer(String text) {
+        Unpooled.copiedBuffer(text, StandardCharsets.UTF_8)
+    }
+}
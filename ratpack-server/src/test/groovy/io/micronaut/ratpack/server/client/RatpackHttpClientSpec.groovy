@@ -0,0 +1,40 @@
+package io.micronaut.ratpack.server.client
+
+import io.micronaut.context.ApplicationContext
+import ratpack.http.client.HttpClient
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.time.Duration
+
+class RatpackHttpClientSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run([
+            "ratpack.http-client.enabled"     : true,
+            "ratpack.http-client.pool-size"   : 8,
+            "ratpack.http-client.read-timeout": "5s"
+    ], "test")
+
+    def "publishes a pooled client configured from properties"() {
+        when:
+        def client = context.getBean(HttpClient)
+
+        then:
+        client.poolSize == 8
+        client.readTimeout == Duration.ofSeconds(5)
+    }
+
+    def "is not published unless enabled"() {
+        given:
+        def disabled = ApplicationContext.run("test")
+
+        expect:
+        !disabled.containsBean(HttpClient)
+
+        cleanup:
+        disabled.close()
+    }
+}
@@ -0,0 +1,87 @@
+package io.micronaut.ratpack.server.coalesce
+
+import ratpack.exec.Promise
+import ratpack.exec.util.ParallelBatch
+import ratpack.test.exec.ExecHarness
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class RequestCoalescerSpec extends Specification {
+
+    @AutoCleanup
+    ExecHarness harness = ExecHarness.harness()
+
+    RequestCoalescer coalescer = new RequestCoalescer()
+    AtomicInteger calls = new AtomicInteger()
+
+    def "runs one execution per key and shares its value"() {
+        when:
+        def values = harness.yield {
+            ParallelBatch.of((1..5).collect { coalescer.coalesce("key", { slow(Promise.value("value")) }) }).yield()
+        }.valueOrThrow
+
+        then:
+        values == ["value"] * 5
+        calls.get() == 1
+        coalescer.coalesced == 4
+        coalescer.inFlight == 0
+    }
+
+    def "shares errors and forgets the key afterwards"() {
+        when:
+        def result = harness.yield {
+            ParallelBatch.of((1..3).collect {
+                coalescer.coalesce("key", { slow(Promise.error(new IllegalStateException("boom"))) })
+                        .mapError { it.message }
+            }).yield()
+        }.valueOrThrow
+
+        then:
+        result == ["boom"] * 3
+        calls.get() == 1
+
+        when:
+        harness.yield { coalescer.coalesce("key", { slow(Promise.value("again")) }) }.valueOrThrow
+
+        then:
+        calls.get() == 2
+    }
+
+    def "fails the waiters and forgets the key when the leader completes without a value"() {
+        when:
+        def results = harness.yield {
+            ParallelBatch.of((1..3).collect { coalescer.coalesce("key", { slow(work) }) }).yieldAll()
+        }.valueOrThrow
+
+        then:
+        calls.get() == 1
+        results.count { it.complete } == 1
+        results.findAll { it.error }*.throwable*.class == [IllegalStateException] * 2
+        coalescer.inFlight == 0
+
+        when:
+        def value = harness.yield { coalescer.coalesce("key", { slow(Promise.value("again")) }) }.valueOrThrow
+
+        then:
+        value == "again"
+        calls.get() == 2
+
+        where:
+        work << [
+                Promise.async { it.complete() },
+                Promise.value("value").route({ true }, {})
+        ]
+    }
+
+    private <T> Promise<T> slow(Promise<T> promise) {
+        calls.incrementAndGet()
+        Promise.async { downstream ->
+            Thread.start {
+                sleep(200)
+                downstream.success(null)
+            }
+        }.flatMap { promise }
+    }
+}
@@ -0,0 +1,92 @@
+package io.micronaut.ratpack.server.etag
+
+import ratpack.http.client.ReceivedResponse
+import ratpack.test.embed.EmbeddedApp
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class ETagHandlerSpec extends Specification {
+
+    @AutoCleanup
+    EmbeddedApp app = EmbeddedApp.fromHandlers { chain ->
+        chain.all(new ETagHandler(new ETagProperties(maxBufferSize: 16)))
+        chain.path("text") { ctx ->
+            ctx.byMethod { it.get { ctx.render("hello") }.post { ctx.render("posted") } }
+        }
+        chain.get("large") { it.render("x" * 64) }
+        chain.get("missing") { it.response.status(404).send("nope") }
+    }
+
+    def "adds an ETag to an eligible response"() {
+        when:
+        def response = request("GET", "text", null)
+
+        then:
+        response.statusCode == 200
+        response.body.text == "hello"
+        response.headers.get("ETag") ==~ /"[0-9a-f]+"/
+    }
+
+    def "answers a matching If-None-Match with an empty 304"() {
+        given:
+        def etag = request("GET", "text", null).headers.get("ETag")
+
+        when:
+        def response = request("GET", "text", ifNoneMatch(etag))
+
+        then:
+        response.statusCode == 304
+        response.body.text == ""
+        response.headers.get("ETag") == etag
+
+        where:
+        ifNoneMatch << [{ it }, { "W/$it" }, { "\"other\", $it" }, { "*" }]
+    }
+
+    def "answers a mismatching If-None-Match with the full response"() {
+        given:
+        def etag = request("GET", "text", null).headers.get("ETag")
+
+        when:
+        def response = request("GET", "text", "\"other\"")
+
+        then:
+        response.statusCode == 200
+        response.body.text == "hello"
+        response.headers.get("ETag") == etag
+    }
+
+    def "passes a response larger than the buffer through untouched"() {
+        when:
+        def response = request("GET", "large", "*")
+
+        then:
+        response.statusCode == 200
+        response.body.text == "x" * 64
+        response.headers.get("ETag") == null
+    }
+
+    def "passes non GET and non 200 responses through untouched"() {
+        when:
+        def response = request(method, path, "*")
+
+        then:
+        response.statusCode == status
+        response.body.text == body
+        response.headers.get("ETag") == null
+
+        where:
+        method | path      | status | body
+        "POST" | "text"    | 200    | "posted"
+        "GET"  | "missing" | 404    | "nope"
+    }
+
+    private ReceivedResponse request(String method, String path, String ifNoneMatch) {
+        app.httpClient.request(path) { spec ->
+            spec.method(method)
+            if (ifNoneMatch != null) {
+                spec.headers.set("If-None-Match", ifNoneMatch)
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.micronaut.ratpack.server.etag
+
+import io.netty.buffer.Unpooled
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.charset.StandardCharsets
+
+class XxHash64Spec extends Specification {
+
+    @Unroll
+    def "hashes '#text' to the reference value whether written whole or in chunks of #chunk"() {
+        given:
+        def bytes = text.getBytes(StandardCharsets.US_ASCII)
+        def hash = new XxHash64(0)
+
+        when:
+        for (int i = 0; i < bytes.length; i += chunk) {
+            def buffer = Unpooled.wrappedBuffer(bytes, i, Math.min(chunk, bytes.length - i))
+            hash.update(buffer)
+            assert buffer.readerIndex() == 0
+        }
+
+        then:
+        Long.toHexString(hash.digest()) == expected
+
+        where:
+        text                                      | chunk | expected
+        ""                                        | 1     | "ef46db3751d8e999"
+        "abc"                                     | 1     | "44bc2cf5ad770999"
+        "abc"                                     | 3     | "44bc2cf5ad770999"
+        "Nobody inspects the spammish repetition" | 5     | "fbcea83c8a378bf1"
+        "Nobody inspects the spammish repetition" | 39    | "fbcea83c8a378bf1"
+    }
+}
@@ -0,0 +1,86 @@
+package io.micronaut.ratpack.server.json
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.SerializationFeature
+import io.micronaut.context.ApplicationContext
+import ratpack.http.client.RequestSpec
+import ratpack.jackson.Jackson
+import ratpack.test.embed.EmbeddedApp
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class MicronautJsonSpec extends Specification {
+
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run([
+            (JsonProperties.ENABLED)          : true,
+            "jackson.property-naming-strategy": "SNAKE_CASE"
+    ], "test")
+
+    @AutoCleanup
+    EmbeddedApp app = EmbeddedApp.of { spec ->
+        spec.registryOf { r ->
+            r.add(context.getBean(MicronautJsonRenderer))
+            r.add(context.getBean(MicronautJsonParser))
+            r.add(context.getBean(MicronautJsonNoOptParser))
+        }.handlers { chain ->
+            chain.get("render") { ctx -> ctx.render(Jackson.json(new Person(firstName: "Ada"))) }
+            chain.get("writer") { ctx ->
+                def writer = context.getBean(ObjectMapper).writer()
+                        .with(SerializationFeature.WRAP_ROOT_VALUE)
+                        .withRootName("person")
+                ctx.render(Jackson.json(new Person(firstName: "Ada"), writer))
+            }
+            chain.post("parse") { ctx ->
+                ctx.parse(Jackson.fromJson(Person)).then { ctx.render(it.firstName) }
+            }
+            chain.post("parse-no-opt") { ctx ->
+                ctx.parse(Person).then { ctx.render(it.firstName) }
+            }
+        }
+    }
+
+    def "renders with the micronaut object mapper"() {
+        expect:
+        app.httpClient.getText("render") == '{"first_name":"Ada"}'
+    }
+
+    def "renders with a supplied object writer"() {
+        expect:
+        app.httpClient.getText("writer") == '{"person":{"first_name":"Ada"}}'
+    }
+
+    def "parses with the micronaut object mapper"() {
+        expect:
+        post(path) == "Ada"
+
+        where:
+        path << ["parse", "parse-no-opt"]
+    }
+
+    def "is not registered unless enabled"() {
+        given:
+        def disabled = ApplicationContext.run(properties, "test")
+
+        expect:
+        !disabled.containsBean(MicronautJsonRenderer)
+        !disabled.containsBean(MicronautJsonParser)
+        !disabled.containsBean(MicronautJsonNoOptParser)
+
+        cleanup:
+        disabled.close()
+
+        where:
+        properties << [[:], [(JsonProperties.ENABLED): false]]
+    }
+
+    private String post(String path) {
+        app.httpClient.request(path) { RequestSpec request ->
+            request.post().body.type("application/json").text('{"first_name":"Ada"}')
+        }.body.text
+    }
+
+    static class Person {
+        String firstName
+    }
+}
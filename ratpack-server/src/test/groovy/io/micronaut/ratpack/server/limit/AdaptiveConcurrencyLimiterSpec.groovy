@@ -0,0 +1,83 @@
+package io.micronaut.ratpack.server.limit
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class AdaptiveConcurrencyLimiterSpec extends Specification {
+
+    def "rejects requests over the limit"() {
+        given:
+        def limiter = new AdaptiveConcurrencyLimiter(properties(2), { 0L })
+
+        expect:
+        limiter.tryAcquire()
+        limiter.tryAcquire()
+        !limiter.tryAcquire()
+        limiter.rejected == 1
+        limiter.inFlight == 2
+    }
+
+    def "grows the limit when requests complete quickly under load"() {
+        given:
+        def limiter = new AdaptiveConcurrencyLimiter(properties(2), { 0L })
+
+        when:
+        limiter.tryAcquire()
+        limiter.tryAcquire()
+        limiter.release(Duration.ofMillis(1).toNanos(), false)
+
+        then:
+        limiter.limit == 3
+        limiter.inFlight == 1
+    }
+
+    def "backs off on failures, slow requests and event loop lag"() {
+        given:
+        long lag = 0
+        def limiter = new AdaptiveConcurrencyLimiter(properties(20), { lag })
+
+        when:
+        limiter.tryAcquire()
+        limiter.release(0, true)
+
+        then:
+        limiter.limit == 18
+
+        when:
+        limiter.tryAcquire()
+        limiter.release(Duration.ofSeconds(2).toNanos(), false)
+
+        then:
+        limiter.limit == 16
+
+        when:
+        lag = Duration.ofSeconds(1).toNanos()
+        limiter.tryAcquire()
+        limiter.release(0, false)
+
+        then:
+        limiter.limit == 14
+    }
+
+    def "never drops below the minimum limit"() {
+        given:
+        def limiter = new AdaptiveConcurrencyLimiter(properties(10), { 0L })
+
+        when:
+        20.times {
+            limiter.tryAcquire()
+            limiter.release(0, true)
+        }
+
+        then:
+        limiter.limit == 10
+    }
+
+    private static ConcurrencyLimitProperties properties(int initialLimit) {
+        def properties = new ConcurrencyLimitProperties()
+        properties.initialLimit = initialLimit
+        properties.minLimit = Math.min(10, initialLimit)
+        properties
+    }
+}
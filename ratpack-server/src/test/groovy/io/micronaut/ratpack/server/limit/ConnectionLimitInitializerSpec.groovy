@@ -0,0 +1,54 @@
+package io.micronaut.ratpack.server.limit
+
+import io.micronaut.ratpack.server.internal.ChannelInitializingRatpackServer
+import ratpack.func.Action
+import ratpack.impose.Impositions
+import ratpack.server.RatpackServerSpec
+import ratpack.server.ServerConfig
+import ratpack.test.embed.EmbeddedApp
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+class ConnectionLimitInitializerSpec extends Specification {
+
+    def limiter = new ConnectionLimiter(1, 0)
+    def conditions = new PollingConditions(timeout: 5)
+
+    @AutoCleanup
+    EmbeddedApp app = EmbeddedApp.fromServer(new ChannelInitializingRatpackServer({ RatpackServerSpec spec ->
+        spec.serverConfig(ServerConfig.embedded()).handlers { chain -> chain.all { it.render("ok") } }
+    } as Action<RatpackServerSpec>, Impositions.current(), [new ConnectionLimitInitializer(limiter)]))
+
+    def "counts connections that never send a request and closes those over the limit"() {
+        given:
+        def address = app.address
+        def idle = new Socket(address.host, address.port)
+
+        expect:
+        conditions.eventually {
+            assert limiter.connections == 1
+        }
+
+        when:
+        def refused = new Socket(address.host, address.port)
+        refused.soTimeout = 5000
+
+        then:
+        refused.inputStream.read() == -1
+        limiter.rejected == 1
+
+        when:
+        idle.close()
+
+        then:
+        conditions.eventually {
+            assert limiter.connections == 0
+        }
+        app.httpClient.text == "ok"
+
+        cleanup:
+        refused?.close()
+        idle?.close()
+    }
+}
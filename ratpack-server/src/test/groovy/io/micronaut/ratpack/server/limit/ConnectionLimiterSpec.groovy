@@ -0,0 +1,56 @@
+package io.micronaut.ratpack.server.limit
+
+import spock.lang.Specification
+
+class ConnectionLimiterSpec extends Specification {
+
+    InetAddress a = InetAddress.getByName("10.0.0.1")
+    InetAddress b = InetAddress.getByName("10.0.0.2")
+
+    def "rejects connections beyond the global limit"() {
+        given:
+        def limiter = new ConnectionLimiter(2, 0)
+
+        expect:
+        limiter.tryAcquire(a)
+        limiter.tryAcquire(b)
+        !limiter.tryAcquire(a)
+        limiter.rejected == 1
+
+        when:
+        limiter.release(a)
+
+        then:
+        limiter.tryAcquire(a)
+        limiter.connections == 2
+    }
+
+    def "rejects connections beyond the per address limit"() {
+        given:
+        def limiter = new ConnectionLimiter(0, 1)
+
+        expect:
+        limiter.tryAcquire(a)
+        !limiter.tryAcquire(a)
+        limiter.tryAcquire(b)
+        limiter.rejectedPerIp == 1
+        limiter.connections == 2
+    }
+
+    def "forgets addresses without open connections"() {
+        given:
+        def limiter = new ConnectionLimiter(0, 2)
+        limiter.tryAcquire(a)
+        limiter.tryAcquire(a)
+
+        when:
+        limiter.release(a)
+        limiter.release(a)
+
+        then:
+        limiter.addresses == 0
+        limiter.connections == 0
+        limiter.tryAcquire(a)
+        limiter.addresses == 1
+    }
+}
@@ -0,0 +1,121 @@
+package io.micronaut.ratpack.server.profile
+
+import com.google.common.base.Supplier
+import com.google.common.reflect.TypeToken
+import io.micronaut.context.event.BeanCreatedEvent
+import ratpack.registry.Registry
+import ratpack.registry.RegistryBacking
+import spock.lang.Specification
+
+class RegistryProfilerSpec extends Specification {
+
+    RegistryProfiler profiler = new RegistryProfiler(new RegistryProfilerProperties())
+    Registry registry = profiler.profile(Registry.single(String, "customizer"), Registry.single(Integer, 1))
+
+    def "records which layer answered each lookup"() {
+        when:
+        registry.get(String)
+        registry.get(String)
+        registry.get(Integer)
+        registry.maybeGet(Long)
+        registry.getAll(String).toList()
+
+        then:
+        def resolutions = profiler.resolutions.collectEntries { [it.type, it] }
+        resolutions["java.lang.String"].customizer == 2
+        resolutions["java.lang.String"].micronaut == 0
+        resolutions["java.lang.String"].all == 1
+        resolutions["java.lang.String"].lookups == 3
+        resolutions["java.lang.Integer"].micronaut == 1
+        resolutions["java.lang.Long"].unresolved == 1
+    }
+
+    def "gives micronaut beans precedence over customizer registries like a join"() {
+        given:
+        def customizers = Registry.single(String, "customizer")
+        def micronaut = Registry.single(String, "micronaut")
+        def profiled = profiler.profile(customizers, micronaut)
+        def joined = customizers.join(micronaut)
+
+        expect:
+        profiled.get(String) == joined.get(String)
+        profiled.get(String) == "micronaut"
+        profiled.getAll(String).toList() == joined.getAll(String).toList()
+        profiler.resolutions.find { it.type == "java.lang.String" }.micronaut == 2
+    }
+
+    def "counts beans instantiated while resolving from micronaut"() {
+        given:
+        def created = Stub(BeanCreatedEvent)
+        def counting = Registry.backedBy({ type ->
+            [{ -> profiler.onCreated(created); type.rawType.newInstance() } as Supplier]
+        } as RegistryBacking)
+        def profiled = profiler.profile(Registry.empty(), counting)
+
+        when:
+        profiled.get(ArrayList)
+        profiled.get(ArrayList)
+
+        then:
+        profiler.resolutions.find { it.type == "java.util.ArrayList" }.instantiations == 2
+    }
+
+    def "resolves every instance lazily and records once iterated"() {
+        given:
+        def resolved = []
+        def lazy = Registry.backedBy({ type ->
+            ["first", "second"].collect { name -> { -> resolved << name; name } as Supplier }
+        } as RegistryBacking)
+        def profiled = profiler.profile(Registry.single(String, "customizer"), lazy)
+
+        when:
+        def all = profiled.getAll(String)
+
+        then:
+        resolved.empty
+        profiler.resolutions.empty
+
+        when:
+        def first = all.iterator().next()
+
+        then:
+        first == "first"
+        resolved == ["first"]
+        !profiler.resolutions.any { it.all }
+
+        when:
+        def values = all.toList()
+
+        then:
+        values == ["first", "second", "customizer"]
+        profiler.resolutions.find { it.type == "java.lang.String" }.all == 1
+    }
+
+    def "stops resolving at the first match"() {
+        given:
+        def resolved = []
+        def lazy = Registry.backedBy({ type ->
+            ["first", "second"].collect { name -> { -> resolved << name; name } as Supplier }
+        } as RegistryBacking)
+        def profiled = profiler.profile(Registry.empty(), lazy)
+
+        when:
+        def value = profiled.first(TypeToken.of(String)) { it.toUpperCase() }
+
+        then:
+        value.get() == "FIRST"
+        resolved == ["first"]
+        profiler.resolutions.find { it.type == "java.lang.String" }.all == 1
+    }
+
+    def "resets the recorded resolutions"() {
+        given:
+        registry.get(String)
+
+        when:
+        profiler.reset()
+
+        then:
+        profiler.resolutions.empty
+    }
+}
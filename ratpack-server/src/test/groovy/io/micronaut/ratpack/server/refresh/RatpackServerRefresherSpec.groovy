@@ -0,0 +1,89 @@
+package io.micronaut.ratpack.server.refresh
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.env.PropertySource
+import io.micronaut.ratpack.server.limit.AdaptiveConcurrencyLimiter
+import io.micronaut.ratpack.server.limit.ConnectionLimiter
+import io.micronaut.runtime.context.scope.refresh.RefreshEvent
+import io.micronaut.runtime.server.EmbeddedServer
+import ratpack.server.RatpackServer
+import ratpack.server.ServerConfig
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class RatpackServerRefresherSpec extends Specification {
+
+    @AutoCleanup
+    EmbeddedServer server = ApplicationContext.run(EmbeddedServer, [
+            'ratpack.server.refresh.enabled'   : true,
+            'ratpack.server.max-content-length': 1024
+    ], "test")
+
+    RatpackServerRefresher refresher = server.applicationContext.getBean(RatpackServerRefresher)
+
+    def "applies the maximum content length in place"() {
+        given:
+        def ratpackServer = server.applicationContext.getBean(RatpackServer)
+        def port = ratpackServer.bindPort
+
+        when:
+        refresh('ratpack.server.max-content-length': 2048)
+
+        then:
+        refresher.live.maxContentLength == 2048
+        ratpackServer.running
+        ratpackServer.bindPort == port
+    }
+
+    def "reloads the server for properties that cannot change in place"() {
+        given:
+        def ratpackServer = server.applicationContext.getBean(RatpackServer)
+
+        when:
+        refresh('ratpack.server.max-header-size': 16384)
+
+        then:
+        refresher.live == null
+        ratpackServer.running
+        ratpackServer.registry.get().get(ServerConfig).maxHeaderSize == 16384
+    }
+
+    def "applies the rate limits in place"() {
+        given:
+        def limited = ApplicationContext.run(EmbeddedServer, [
+                'ratpack.server.refresh.enabled'          : true,
+                'ratpack.server.concurrency-limit.enabled': true,
+                'ratpack.server.connection-limit.enabled' : true
+        ], "test")
+        def ratpackServer = limited.applicationContext.getBean(RatpackServer)
+        def port = ratpackServer.bindPort
+        def concurrencyLimiter = limited.applicationContext.getBean(AdaptiveConcurrencyLimiter)
+        def connectionLimiter = limited.applicationContext.getBean(ConnectionLimiter)
+
+        when:
+        refresh(limited, [
+                'ratpack.server.concurrency-limit.max-limit'      : 20,
+                'ratpack.server.concurrency-limit.min-limit'      : 5,
+                'ratpack.server.connection-limit.max-connections' : connectionLimiter.connections + 1
+        ])
+
+        then:
+        concurrencyLimiter.limit == 20
+        connectionLimiter.tryAcquire(null)
+        !connectionLimiter.tryAcquire(null)
+        ratpackServer.running
+        ratpackServer.bindPort == port
+
+        cleanup:
+        limited.close()
+    }
+
+    private void refresh(Map<String, Object> properties) {
+        refresh(server, properties)
+    }
+
+    private static void refresh(EmbeddedServer server, Map<String, Object> properties) {
+        server.applicationContext.environment.addPropertySource(PropertySource.of("refresh", properties, 1000))
+        server.applicationContext.publishEvent(new RefreshEvent(properties))
+    }
+}
@@ -0,0 +1,131 @@
+package io.micronaut.ratpack.server.session
+
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.ByteBufAllocator
+import io.netty.buffer.Unpooled
+import io.netty.util.AsciiString
+import ratpack.test.exec.ExecHarness
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class BoundedSessionStoreSpec extends Specification {
+
+    @AutoCleanup
+    ExecHarness harness = ExecHarness.harness()
+
+    long now = 0
+
+    def "loads a copy of the stored bytes"() {
+        given:
+        def store = new BoundedSessionStore(1024 * 1024, 1000, 4, offHeap, { now })
+        def data = buffer("session")
+
+        when:
+        harness.execute(store.store(id("a"), data))
+        data.release()
+
+        then:
+        text(harness.yield { store.load(id("a")) }.valueOrThrow) == "session"
+        !harness.yield { store.load(id("b")) }.valueOrThrow.readable
+        harness.yield { store.size() }.valueOrThrow == 1
+
+        where:
+        offHeap << [false, true]
+    }
+
+    def "evicts the least recently used session when full"() {
+        given:
+        def store = new BoundedSessionStore(400, 1000, 1, false, { now })
+        harness.execute(store.store(id("a"), buffer("x" * 64)))
+        harness.execute(store.store(id("b"), buffer("x" * 64)))
+        harness.yield { store.load(id("a")) }
+
+        when:
+        harness.execute(store.store(id("c"), buffer("x" * 64)))
+
+        then:
+        harness.yield { store.load(id("a")) }.valueOrThrow.readable
+        !harness.yield { store.load(id("b")) }.valueOrThrow.readable
+        store.evictions == 1
+        store.count == 2
+    }
+
+    def "expires sessions not used within the ttl"() {
+        given:
+        def store = new BoundedSessionStore(1024 * 1024, 1000, 1, false, { now })
+        harness.execute(store.store(id("a"), buffer("a")))
+        harness.execute(store.store(id("b"), buffer("b")))
+
+        when:
+        now = 600
+        harness.yield { store.load(id("a")) }
+        now = 1200
+
+        then:
+        harness.yield { store.load(id("a")) }.valueOrThrow.readable
+        !harness.yield { store.load(id("b")) }.valueOrThrow.readable
+        store.expirations == 1
+        store.count == 1
+    }
+
+    def "removes a session"() {
+        given:
+        def store = new BoundedSessionStore(1024 * 1024, 1000, 4, false, { now })
+        harness.execute(store.store(id("a"), buffer("a")))
+
+        when:
+        harness.execute(store.remove(id("a")))
+
+        then:
+        store.count == 0
+        store.size == 0
+    }
+
+    def "releases direct buffers when sessions are replaced, evicted, removed or cleared"() {
+        given:
+        List<ByteBuf> allocated = []
+        def allocator = Stub(ByteBufAllocator) {
+            directBuffer(_, _) >> { int initial, int max ->
+                def buffer = Unpooled.directBuffer(initial, max)
+                allocated << buffer
+                buffer
+            }
+        }
+        def store = new BoundedSessionStore(400, 1000, 1, true, allocator, { now })
+
+        when:
+        harness.execute(store.store(id("a"), buffer("x" * 64)))
+        harness.execute(store.store(id("a"), buffer("y" * 64)))
+        harness.execute(store.store(id("b"), buffer("x" * 64)))
+        harness.execute(store.store(id("c"), buffer("x" * 64)))
+
+        then:
+        allocated*.refCnt() == [0, 0, 1, 1]
+
+        when:
+        def loaded = harness.yield { store.load(id("b")) }.valueOrThrow
+        harness.execute(store.remove(id("b")))
+        store.clear()
+
+        then:
+        allocated*.refCnt() == [0, 0, 0, 0]
+        !loaded.direct
+        text(loaded) == "x" * 64
+        store.count == 0
+        store.size == 0
+    }
+
+    private static AsciiString id(String value) {
+        AsciiString.of(value)
+    }
+
+    private static ByteBuf buffer(String text) {
+        Unpooled.copiedBuffer(text, StandardCharsets.UTF_8)
+    }
+
+    private static String text(ByteBuf buffer) {
+        buffer.toString(StandardCharsets.UTF_8)
+    }
+}
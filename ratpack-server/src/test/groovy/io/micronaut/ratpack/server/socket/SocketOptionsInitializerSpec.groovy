@@ -0,0 +1,68 @@
+package io.micronaut.ratpack.server.socket
+
+import io.micronaut.context.env.Environment
+import io.micronaut.ratpack.server.RatpackServerProperties
+import io.micronaut.ratpack.server.internal.ChannelInitializingRatpackServer
+import io.netty.channel.ChannelOption
+import ratpack.func.Action
+import ratpack.impose.Impositions
+import ratpack.server.RatpackServerSpec
+import ratpack.server.ServerConfig
+import ratpack.test.embed.EmbeddedApp
+import spock.lang.Specification
+
+class SocketOptionsInitializerSpec extends Specification {
+
+    def "applies the configured options to a connection when it is accepted"() {
+        given:
+        def properties = new RatpackServerProperties(Stub(Environment), null, 0)
+        properties.tcpNoDelay = tcpNoDelay
+        properties.keepAlive = keepAlive
+        def app = app(new SocketOptionsInitializer(properties))
+
+        expect:
+        app.httpClient.text == "$tcpNoDelay $keepAlive"
+
+        cleanup:
+        app.close()
+
+        where:
+        tcpNoDelay | keepAlive
+        true       | true
+        false      | false
+    }
+
+    def "applies changed options to connections accepted afterwards"() {
+        given:
+        def properties = new RatpackServerProperties(Stub(Environment), null, 0)
+        properties.keepAlive = false
+        def initializer = new SocketOptionsInitializer(properties)
+        def app = app(initializer)
+        def changed = new RatpackServerProperties(Stub(Environment), null, 0)
+        changed.keepAlive = true
+
+        expect:
+        app.httpClient.text.endsWith("false")
+
+        when:
+        initializer.properties = changed
+
+        then:
+        app.httpClient.text.endsWith("true")
+
+        cleanup:
+        app.close()
+    }
+
+    private static EmbeddedApp app(SocketOptionsInitializer initializer) {
+        Action<RatpackServerSpec> definition = { RatpackServerSpec spec ->
+            spec.serverConfig(ServerConfig.embedded()).handlers { chain ->
+                chain.all { ctx ->
+                    def config = ctx.directChannelAccess.channel.config()
+                    ctx.render("${config.getOption(ChannelOption.TCP_NODELAY)} ${config.getOption(ChannelOption.SO_KEEPALIVE)}")
+                }
+            }
+        }
+        EmbeddedApp.fromServer(new ChannelInitializingRatpackServer(definition, Impositions.current(), [initializer]))
+    }
+}
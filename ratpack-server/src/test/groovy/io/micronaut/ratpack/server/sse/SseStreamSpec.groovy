@@ -0,0 +1,100 @@
+package io.micronaut.ratpack.server.sse
+
+import io.netty.buffer.ByteBuf
+import io.netty.channel.Channel
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.atomic.LongAdder
+
+class SseStreamSpec extends Specification {
+
+    SseStream stream = new SseStream(3)
+    LongAdder disconnected = new LongAdder()
+
+    def cleanup() {
+        stream.close()
+    }
+
+    def "encodes events once for every connection"() {
+        given:
+        def a = subscriber(connection(), -1, Long.MAX_VALUE)
+        def b = subscriber(connection(), -1, Long.MAX_VALUE)
+
+        when:
+        stream.publish("tick", "line1\nline2")
+
+        then:
+        a.events == ["id: 1\nevent: tick\ndata: line1\ndata: line2\n\n"]
+        b.events == a.events
+    }
+
+    def "replays retained events after the last event id"() {
+        given:
+        (1..5).each { stream.publish(null, "e$it") }
+
+        when:
+        def replayed = subscriber(connection(), 3, Long.MAX_VALUE)
+
+        then:
+        replayed.events == ["id: 4\ndata: e4\n\n", "id: 5\ndata: e5\n\n"]
+
+        when:
+        def tooOld = subscriber(connection(), 0, Long.MAX_VALUE)
+
+        then:
+        tooOld.events*.readLines()*.first() == ["id: 3", "id: 4", "id: 5"]
+    }
+
+    def "disconnects clients with too many pending events"() {
+        given:
+        def channel = Mock(Channel)
+        def slow = new SseConnection(channel, 2, disconnected)
+        subscriber(slow, -1, 0)
+
+        when:
+        3.times { stream.publish(null, "e$it") }
+
+        then:
+        1 * channel.close()
+        disconnected.sum() == 1
+        stream.connections == 0
+    }
+
+    private SseConnection connection() {
+        new SseConnection(Stub(Channel), 10, disconnected)
+    }
+
+    private CollectingSubscriber subscriber(SseConnection connection, long lastEventId, long demand) {
+        stream.add(connection, lastEventId)
+        def subscriber = new CollectingSubscriber(demand: demand)
+        connection.subscribe(subscriber)
+        subscriber
+    }
+
+    static class CollectingSubscriber implements Subscriber<ByteBuf> {
+        long demand
+        Subscription subscription
+        List<String> events = []
+
+        void onSubscribe(Subscription s) {
+            subscription = s
+            if (demand > 0) {
+                s.request(demand)
+            }
+        }
+
+        void onNext(ByteBuf buf) {
+            events << buf.toString(StandardCharsets.UTF_8)
+            buf.release()
+        }
+
+        void onError(Throwable t) {
+        }
+
+        void onComplete() {
+        }
+    }
+}
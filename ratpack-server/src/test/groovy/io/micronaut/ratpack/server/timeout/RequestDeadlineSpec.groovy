@@ -0,0 +1,71 @@
+package io.micronaut.ratpack.server.timeout
+
+import ratpack.exec.Promise
+import ratpack.test.exec.ExecHarness
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+
+class RequestDeadlineSpec extends Specification {
+
+    @AutoCleanup
+    ExecHarness harness = ExecHarness.harness()
+
+    RequestDeadline deadline = new RequestDeadline(Duration.ofSeconds(1), System.nanoTime() + Duration.ofSeconds(1).toNanos())
+
+    def "bound promises complete normally before the deadline"() {
+        expect:
+        harness.yield { deadline.bound(Promise.value("value")) }.valueOrThrow == "value"
+        deadline.complete()
+        !deadline.expired
+    }
+
+    def "bound promises fail when the deadline expires"() {
+        when:
+        def result = harness.yield {
+            deadline.bound(Promise.async { downstream ->
+                Thread.start { deadline.expire() }
+            })
+        }
+
+        then:
+        result.throwable instanceof RequestTimeoutException
+        deadline.expired
+    }
+
+    def "blocking work is interrupted when the deadline expires"() {
+        given:
+        def started = new CountDownLatch(1)
+        Thread.start {
+            started.await()
+            deadline.expire()
+        }
+
+        when:
+        def result = harness.yield {
+            deadline.blocking {
+                started.countDown()
+                Thread.sleep(10_000)
+                "value"
+            }
+        }
+
+        then:
+        result.throwable instanceof RequestTimeoutException
+    }
+
+    def "a completed deadline cannot expire"() {
+        given:
+        def expired = false
+        deadline.onExpiry { expired = true }
+
+        when:
+        deadline.complete()
+
+        then:
+        !deadline.expire()
+        !expired
+    }
+}
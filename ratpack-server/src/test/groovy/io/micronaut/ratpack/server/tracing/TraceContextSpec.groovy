@@ -0,0 +1,75 @@
+package io.micronaut.ratpack.server.tracing
+
+import ratpack.exec.Promise
+import ratpack.test.exec.ExecHarness
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class TraceContextSpec extends Specification {
+
+    @AutoCleanup
+    ExecHarness harness = ExecHarness.harness()
+
+    def "parses and formats a traceparent header"() {
+        given:
+        def header = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"
+
+        when:
+        def context = TraceContext.parse(header)
+
+        then:
+        context.traceId == "4bf92f3577b34da6a3ce929d0e0e4736"
+        context.spanId == "00f067aa0ba902b7"
+        context.sampled
+        context.toTraceparent() == header
+    }
+
+    def "child spans keep the trace id and sampling decision"() {
+        given:
+        def parent = TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00")
+
+        when:
+        def child = parent.child()
+
+        then:
+        child.traceId == parent.traceId
+        child.parentSpanId == "00f067aa0ba902b7"
+        child.spanId != parent.spanId
+        !child.sampled
+    }
+
+    @Unroll
+    def "rejects malformed header #header"() {
+        expect:
+        TraceContext.parse(header) == null
+
+        where:
+        header << [
+                null,
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7",
+                "ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+                "00-00000000000000000000000000000000-00f067aa0ba902b7-01",
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01",
+                "00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01",
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01x"
+        ]
+    }
+
+    def "accepts ids of all f"() {
+        expect:
+        TraceContext.parse("00-ffffffffffffffffffffffffffffffff-ffffffffffffffff-01").spanId == "ffffffffffffffff"
+    }
+
+    def "exposes the context stored in the current execution"() {
+        given:
+        def context = TraceContext.root(true)
+
+        expect:
+        !TraceContext.current().present
+        harness.yield({ execution ->
+            execution.add(TraceContext, context)
+            Promise.sync { TraceContext.current().orElse(null) }
+        }).valueOrThrow.is(context)
+    }
+}
@@ -0,0 +1,48 @@
+package io.micronaut.ratpack.server.tracing
+
+import ratpack.test.embed.EmbeddedApp
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+class TracingHandlerSpec extends Specification {
+
+    def spans = new LinkedBlockingQueue<Span>()
+
+    @AutoCleanup
+    EmbeddedApp app = EmbeddedApp.of { spec ->
+        spec.handlers { chain ->
+            chain.all(new TracingHandler(new TracingProperties(samplingRate: 1), { spans.put(it) }))
+            chain.prefix("api") { api ->
+                api.get("users/:id") { ctx -> ctx.render(ctx.pathTokens.id) }
+            }
+        }
+    }
+
+    def "names spans after the matched route rather than the raw path"() {
+        when:
+        app.httpClient.getText("api/users/1")
+        app.httpClient.getText("api/users/2")
+
+        then:
+        nextSpan().name == "GET /api/users/:id"
+        nextSpan().name == "GET /api/users/:id"
+    }
+
+    def "names spans after the method alone when no route matches"() {
+        when:
+        app.httpClient.get("unknown/${UUID.randomUUID()}")
+
+        then:
+        with(nextSpan()) {
+            name == "GET"
+            statusCode == 404
+        }
+    }
+
+    private Span nextSpan() {
+        spans.poll(5, TimeUnit.SECONDS)
+    }
+}
@@ -0,0 +1,89 @@
+package io.micronaut.ratpack.server.warmup
+
+import ratpack.exec.Promise
+import ratpack.test.embed.EmbeddedApp
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+class RatpackWarmupSpec extends Specification {
+
+    AtomicInteger hits = new AtomicInteger()
+    List<String> paths = Collections.synchronizedList([])
+
+    @AutoCleanup
+    EmbeddedApp app = EmbeddedApp.fromHandlers { chain ->
+        chain.get("hang") { ctx -> Promise.async { } .then { ctx.render("never") } }
+        chain.all { ctx ->
+            hits.incrementAndGet()
+            paths << ctx.request.path
+            ctx.render("ok")
+        }
+    }
+
+    def "detects stable latency by comparing consecutive windows"() {
+        expect:
+        RatpackWarmup.isStable(passes, 2, 0.1) == stable
+
+        where:
+        passes                  | stable
+        [100L, 100L, 100L]      | false
+        [900L, 500L, 105L, 100L]| false
+        [110L, 100L, 104L, 100L]| true
+    }
+
+    def "replays configured requests up to the maximum iterations"() {
+        given:
+        def properties = new WarmupProperties(minIterations: 100, maxIterations: 3, maxDuration: Duration.ofSeconds(10))
+        def request = new WarmupRequestProperties("root")
+        request.uri = "/"
+        def warmup = new RatpackWarmup(properties, [request])
+
+        when:
+        def result = warmup.run(app.address)
+
+        then:
+        result.iterations == 3
+        result.failures == 0
+        !result.stable
+        hits.get() == 3
+    }
+
+    def "resolves relative request uris against the base path"() {
+        given:
+        def properties = new WarmupProperties(minIterations: 100, maxIterations: 1, maxDuration: Duration.ofSeconds(10))
+        def request = new WarmupRequestProperties("relative")
+        request.uri = "ctx/x"
+        def warmup = new RatpackWarmup(properties, [request])
+
+        when:
+        def result = warmup.run(URI.create(app.address.toString().replaceAll('/$', '')))
+
+        then:
+        result.failures == 0
+        paths == ["ctx/x"]
+    }
+
+    def "gives up on a hung request once the maximum duration elapses"() {
+        given:
+        def properties = new WarmupProperties(maxIterations: 10, maxDuration: Duration.ofMillis(500))
+        def request = new WarmupRequestProperties("hang")
+        request.uri = "hang"
+        def warmup = new RatpackWarmup(properties, [request])
+
+        when:
+        def result = warmup.run(app.address)
+
+        then:
+        result.iterations == 0
+        result.failures == 1
+        result.duration < Duration.ofSeconds(5)
+    }
+
+    def "does nothing without requests"() {
+        expect:
+        new RatpackWarmup(new WarmupProperties(), []).run(app.address).iterations == 0
+    }
+}
@@ -0,0 +1,95 @@
+package io.micronaut.ratpack.server.websocket
+
+import io.netty.buffer.Unpooled
+import io.netty.channel.Channel
+import io.netty.channel.embedded.EmbeddedChannel
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame
+import ratpack.websocket.WebSocket
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+
+class WebSocketBroadcasterSpec extends Specification {
+
+    WebSocketBroadcaster broadcaster = new WebSocketBroadcaster()
+
+    def "writes one shared payload to every subscriber"() {
+        given:
+        def channels = (1..3).collect { new EmbeddedChannel() }
+        channels.each { session(it).subscribe("prices") }
+
+        when:
+        def written = broadcaster.broadcast("prices", "42")
+
+        then:
+        written == 3
+        channels.each { channel ->
+            TextWebSocketFrame frame = channel.readOutbound()
+            assert frame.text() == "42"
+            frame.release()
+        }
+        broadcaster.delivered == 3
+    }
+
+    def "skips subscribers whose channel is not writable"() {
+        given:
+        def slow = Stub(Channel) {
+            isActive() >> true
+            isWritable() >> false
+        }
+        def fast = new EmbeddedChannel()
+        session(slow).subscribe("prices")
+        session(fast).subscribe("prices")
+        def payload = Unpooled.copiedBuffer([1, 2, 3] as byte[])
+
+        when:
+        def written = broadcaster.broadcastBinary("prices", payload)
+
+        then:
+        written == 1
+        broadcaster.dropped == 1
+        (fast.readOutbound() as BinaryWebSocketFrame).release()
+        payload.refCnt() == 0
+    }
+
+    def "removes empty topics once their sessions unsubscribe"() {
+        given:
+        def session = session(new EmbeddedChannel())
+        session.subscribe("a")
+        session.subscribe("b")
+
+        when:
+        session.unsubscribeAll()
+
+        then:
+        broadcaster.topics.empty
+        broadcaster.broadcast("a", "ignored") == 0
+    }
+
+    def "keeps subscriptions made while other sessions leave the topic"() {
+        given:
+        def pool = Executors.newFixedThreadPool(4)
+        def staying = (1..200).collect { session(new EmbeddedChannel()) }
+        def leaving = (1..200).collect { session(new EmbeddedChannel()) }
+
+        when:
+        def futures = (0..<200).collectMany { i ->
+            [
+                    pool.submit { leaving[i].subscribe("prices"); leaving[i].unsubscribe("prices") },
+                    pool.submit { staying[i].subscribe("prices") }
+            ]
+        }
+        futures*.get()
+
+        then:
+        broadcaster.getSubscribers("prices") == 200
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    private WebSocketSession session(Channel channel) {
+        new WebSocketSession(Stub(WebSocket), channel, broadcaster)
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.ratpack.test;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.core.order.OrderUtil;
+import io.micronaut.ratpack.server.ChainConfigurers;
+import io.micronaut.ratpack.server.RatpackServerCustomizer;
+import io.micronaut.ratpack.server.internal.JoinedRegistryFunction;
+import ratpack.func.Action;
+import ratpack.handling.Handler;
+import ratpack.handling.Handlers;
+import ratpack.registry.Registry;
+import ratpack.server.ServerConfig;
+import ratpack.server.ServerConfigBuilder;
+import ratpack.test.handling.HandlingResult;
+import ratpack.test.handling.RequestFixture;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs requests through the Ratpack handler chain of an application context with a {@link RequestFixture}, without
+ * starting the server or opening a socket.
+ *
+ * <p>The fixture exercises the handler chain and registry the server would use, built once on the first request;
+ * customizer registries receive a base registry holding only the {@link ServerConfig}. It is a handler test, not a
+ * transport: no Netty channel exists and Ratpack services are not started, so handlers that work on the channel
+ * pipeline or the connection, such as the response cache capture, ETag buffering, request timeouts, socket
+ * options and connection limits, and the server's own error and 404 handling, do not behave as they do on the
+ * running server. Start the server and use an HTTP client to test those.</p>
+ *
+ * <pre>
+ * ApplicationContext context = ApplicationContext.run("test");
+ * HandlingResult result = new RatpackChainFixture(context).get("ctx/test1");
+ * assert result.getBodyText().equals("test1");
+ * </pre>
+ *
+ * @author drmaas
+ * @since 1.0
+ */
+public class RatpackChainFixture {
+
+    private final ServerConfig serverConfig;
+    private final JoinedRegistryFunction registry;
+    private final ChainConfigurers chainConfigurers;
+    private volatile Handler chain;
+    private volatile Registry userRegistry;
+
+    /**
+     * Default constructor.
+     *
+     * @param context The application context holding the Ratpack configuration and handler chain
+     */
+    public RatpackChainFixture(ApplicationContext context) {
+        this.serverConfig = context.getBean(ServerConfigBuilder.class).build();
+        List<RatpackServerCustomizer> customizers =
+                new ArrayList<>(context.getBeansOfType(RatpackServerCustomizer.class));
+        OrderUtil.sort(customizers);
+        this.registry = new JoinedRegistryFunction(context, customizers);
+        this.chainConfigurers = context.getBean(ChainConfigurers.class);
+    }
+
+    /**
+     * Sends a {@code GET} request.
+     *
+     * @param uri The request URI, including the context path
+     * @return the result
+     * @throws Exception if the request cannot be handled
+     */
+    public HandlingResult get(String uri) throws Exception {
+        return request(fixture -> fixture.uri(uri));
+    }
+
+    /**
+     * Sends a request.
+     *
+     * @param request Configures the request
+     * @return the result
+     * @throws Exception if the request cannot be handled
+     */
+    public HandlingResult request(Action<? super RequestFixture> request) throws Exception {
+        Handler handler = chain();
+        Registry user = userRegistry();
+        return RequestFixture.handle(
+                ctx -> ctx.insert(user, handler),
+                fixture -> request.execute(fixture.serverConfig(builder -> builder
+                        .baseDir(serverConfig.getBaseDir().getFile())
+                        .maxContentLength(serverConfig.getMaxContentLength())
+                        .development(serverConfig.isDevelopment())))
+        );
+    }
+
+    private Handler chain() throws Exception {
+        Handler handler = chain;
+        if (handler == null) {
+            handler = Handlers.chain(serverConfig, chainConfigurers);
+            chain = handler;
+        }
+        return handler;
+    }
+
+    private Registry userRegistry() throws Exception {
+        Registry user = userRegistry;
+        if (user == null) {
+            user = registry.apply(Registry.single(ServerConfig.class, serverConfig));
+            userRegistry = user;
+        }
+        return user;
+    }
+}
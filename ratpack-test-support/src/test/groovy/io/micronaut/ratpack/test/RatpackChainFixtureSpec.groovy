@@ -0,0 +1,51 @@
+package io.micronaut.ratpack.test
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Bean
+import io.micronaut.context.annotation.Factory
+import ratpack.func.Action
+import ratpack.handling.Chain
+import ratpack.server.RatpackServer
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class RatpackChainFixtureSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run("test")
+
+    def "runs requests through the handler chain without starting the server"() {
+        given:
+        def fixture = new RatpackChainFixture(context)
+
+        expect:
+        fixture.get("ctx/test1").bodyText == "test1"
+        fixture.get("ctx/test2").bodyText == "test2"
+        fixture.get("ctx/missing").status.code == 404
+        !context.getBean(RatpackServer).running
+    }
+
+    @Factory
+    protected static class RatpackConfiguration {
+
+        @Bean
+        Action<Chain> test1() {
+            { Chain chain ->
+                chain.get("test1") {
+                    it.response.send("test1")
+                }
+            }
+        }
+
+        @Bean
+        Action<Chain> test2() {
+            { Chain chain ->
+                chain.get("test2") {
+                    it.response.send("test2")
+                }
+            }
+        }
+    }
+}